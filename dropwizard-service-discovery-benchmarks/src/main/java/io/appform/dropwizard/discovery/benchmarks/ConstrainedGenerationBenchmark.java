@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2021 Santanu Sinha <santanu.sinha@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package io.appform.dropwizard.discovery.benchmarks;
+
+import io.appform.dropwizard.discovery.bundle.id.Id;
+import io.appform.dropwizard.discovery.bundle.id.IdGenerator;
+import io.appform.dropwizard.discovery.bundle.id.constraints.impl.JavaHashCodeBasedKeyPartitioner;
+import io.appform.dropwizard.discovery.bundle.id.constraints.impl.KeyPartitioner;
+import io.appform.dropwizard.discovery.bundle.id.constraints.impl.Murmur3KeyPartitioner;
+import io.appform.dropwizard.discovery.bundle.id.constraints.impl.MurmurBasedKeyPartitioner;
+import io.appform.dropwizard.discovery.bundle.id.constraints.impl.PartitionValidator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.Optional;
+
+/**
+ * Generation of ids that fall in a single partition, through
+ * {@link IdGenerator#generateWithConstraints(String, String)} with a {@link PartitionValidator}
+ */
+@State(Scope.Benchmark)
+public class ConstrainedGenerationBenchmark extends BenchmarkBase {
+    private static final String DOMAIN = "partitioned";
+
+    @Param({"JAVA_HASHCODE", "MURMUR", "MURMUR3_V1"})
+    private String partitioner;
+
+    @Param({"4", "64"})
+    private int partitionCount;
+
+    @Setup
+    public void setUp() {
+        IdGenerator.initialize(NODE_ID);
+        IdGenerator.registerDomainSpecificConstraints(DOMAIN, new PartitionValidator(1, partitioner()));
+    }
+
+    @TearDown
+    public void tearDown() {
+        IdGenerator.cleanUp();
+    }
+
+    @Benchmark
+    public Optional<Id> generateWithConstraints() {
+        return IdGenerator.generateWithConstraints(PREFIX, DOMAIN);
+    }
+
+    private KeyPartitioner partitioner() {
+        switch (partitioner) {
+            case "JAVA_HASHCODE":
+                return new JavaHashCodeBasedKeyPartitioner(partitionCount);
+            case "MURMUR":
+                return new MurmurBasedKeyPartitioner(partitionCount);
+            case "MURMUR3_V1":
+                return new Murmur3KeyPartitioner(partitionCount, Murmur3KeyPartitioner.Version.V1);
+            default:
+                throw new IllegalArgumentException("Unknown partitioner " + partitioner);
+        }
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2021 Santanu Sinha <santanu.sinha@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package io.appform.dropwizard.discovery.benchmarks;
+
+import io.appform.dropwizard.discovery.bundle.id.AllocationMode;
+import io.appform.dropwizard.discovery.bundle.id.EntropySource;
+import io.appform.dropwizard.discovery.bundle.id.Id;
+import io.appform.dropwizard.discovery.bundle.id.IdGenerator;
+import io.appform.dropwizard.discovery.bundle.id.IdGeneratorConfig;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Unconstrained generation through {@link IdGenerator#generate(String)}
+ */
+@State(Scope.Benchmark)
+public class IdGenerationBenchmark extends BenchmarkBase {
+
+    /**
+     * Allocation mode and entropy source pairs worth measuring. Only the random modes draw entropy, so the
+     * lock free and monotonic allocators are run once.
+     */
+    public enum Variant {
+        RANDOM_SECURE(AllocationMode.RANDOM, EntropySource.SECURE_RANDOM),
+        RANDOM_THREAD_LOCAL(AllocationMode.RANDOM, EntropySource.THREAD_LOCAL_RANDOM),
+        RANDOM_SPLITTABLE(AllocationMode.RANDOM, EntropySource.SPLITTABLE_RANDOM),
+        SHUFFLED_SECURE(AllocationMode.SHUFFLED, EntropySource.SECURE_RANDOM),
+        SHUFFLED_THREAD_LOCAL(AllocationMode.SHUFFLED, EntropySource.THREAD_LOCAL_RANDOM),
+        SHUFFLED_SPLITTABLE(AllocationMode.SHUFFLED, EntropySource.SPLITTABLE_RANDOM),
+        LOCK_FREE(AllocationMode.LOCK_FREE, EntropySource.SECURE_RANDOM),
+        MONOTONIC(AllocationMode.MONOTONIC, EntropySource.SECURE_RANDOM);
+
+        private final AllocationMode allocationMode;
+        private final EntropySource entropySource;
+
+        Variant(AllocationMode allocationMode, EntropySource entropySource) {
+            this.allocationMode = allocationMode;
+            this.entropySource = entropySource;
+        }
+    }
+
+    @Param
+    private Variant variant;
+
+    @Setup
+    public void setUp() {
+        IdGenerator.initialize(NODE_ID, IdGeneratorConfig.builder()
+                .allocationMode(variant.allocationMode)
+                .entropySource(variant.entropySource)
+                .build());
+    }
+
+    @TearDown
+    public void tearDown() {
+        IdGenerator.cleanUp();
+        IdGenerator.initialize(NODE_ID, new IdGeneratorConfig());
+    }
+
+    @Benchmark
+    public Id generate() {
+        return IdGenerator.generate(PREFIX);
+    }
+}
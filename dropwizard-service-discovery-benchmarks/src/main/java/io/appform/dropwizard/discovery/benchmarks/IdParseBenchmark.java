@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) 2021 Santanu Sinha <santanu.sinha@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package io.appform.dropwizard.discovery.benchmarks;
+
+import io.appform.dropwizard.discovery.bundle.id.Id;
+import io.appform.dropwizard.discovery.bundle.id.IdFields;
+import io.appform.dropwizard.discovery.bundle.id.IdGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Optional;
+
+/**
+ * Parsing of generated ids through {@link IdGenerator#parse(String)} and {@link IdGenerator#parse(String, IdFields)}
+ */
+@State(Scope.Benchmark)
+public class IdParseBenchmark extends BenchmarkBase {
+    private static final int ID_COUNT = 1024;
+
+    private final String[] ids = new String[ID_COUNT];
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        private final IdFields fields = new IdFields();
+        private int next;
+
+        String next(String[] ids) {
+            return ids[next++ & (ID_COUNT - 1)];
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        IdGenerator.initialize(NODE_ID);
+        final Id[] generated = IdGenerator.generateBatch(PREFIX, ID_COUNT);
+        for (int i = 0; i < ID_COUNT; i++) {
+            ids[i] = generated[i].getId();
+        }
+    }
+
+    @Benchmark
+    public Optional<Id> parse(Cursor cursor) {
+        return IdGenerator.parse(cursor.next(ids));
+    }
+
+    @Benchmark
+    public boolean parseIntoFields(Cursor cursor) {
+        return IdGenerator.parse(cursor.next(ids), cursor.fields);
+    }
+}
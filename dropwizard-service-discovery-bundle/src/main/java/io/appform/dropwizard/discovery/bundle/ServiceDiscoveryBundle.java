@@ -31,6 +31,7 @@ import io.appform.dropwizard.discovery.bundle.healthchecks.InitialDelayChecker;
 import io.appform.dropwizard.discovery.bundle.healthchecks.InternalHealthChecker;
 import io.appform.dropwizard.discovery.bundle.healthchecks.RotationCheck;
 import io.appform.dropwizard.discovery.bundle.id.IdGenerator;
+import io.appform.dropwizard.discovery.bundle.id.IdGeneratorConfig;
 import io.appform.dropwizard.discovery.bundle.id.NodeIdManager;
 import io.appform.dropwizard.discovery.bundle.id.constraints.IdValidationConstraint;
 import io.appform.dropwizard.discovery.bundle.monitors.DropwizardHealthMonitor;
@@ -130,8 +131,9 @@ public abstract class ServiceDiscoveryBundle<T extends Configuration> implements
                 namespace,
                 serviceName);
 
+        IdGenerator.registerMetrics(environment.metrics());
         environment.lifecycle()
-                .manage(new ServiceDiscoveryManager(serviceName, zoneId));
+                .manage(new ServiceDiscoveryManager(serviceName, zoneId, getIdGeneratorConfig(configuration)));
         environment.jersey()
                 .register(new InfoResource(serviceDiscoveryClient));
         environment.admin()
@@ -154,6 +156,10 @@ public abstract class ServiceDiscoveryBundle<T extends Configuration> implements
         return serviceDiscoveryConfiguration.getZoneId();
     }
 
+    protected IdGeneratorConfig getIdGeneratorConfig(T configuration) {
+        return new IdGeneratorConfig();
+    }
+
     protected List<IsolatedHealthMonitor> getHealthMonitors() {
         return Lists.newArrayList();
     }
@@ -257,10 +263,14 @@ public abstract class ServiceDiscoveryBundle<T extends Configuration> implements
     private class ServiceDiscoveryManager implements Managed {
         private final String serviceName;
         private final int zoneId;
+        private final IdGeneratorConfig idGeneratorConfig;
 
-        public ServiceDiscoveryManager(final String serviceName, final int zoneId) {
+        public ServiceDiscoveryManager(final String serviceName,
+                                       final int zoneId,
+                                       final IdGeneratorConfig idGeneratorConfig) {
             this.serviceName = serviceName;
             this.zoneId = zoneId;
+            this.idGeneratorConfig = idGeneratorConfig;
         }
 
         @Override
@@ -268,8 +278,12 @@ public abstract class ServiceDiscoveryBundle<T extends Configuration> implements
             curator.start();
             serviceProvider.start();
             serviceDiscoveryClient.start();
-            NodeIdManager nodeIdManager = new NodeIdManager(curator, serviceName, zoneId);
-            IdGenerator.initialize(nodeIdManager.fixNodeId(), globalIdConstraints, Collections.emptyMap());
+            NodeIdManager nodeIdManager
+                    = new NodeIdManager(curator, serviceName, zoneId, idGeneratorConfig.layout());
+            IdGenerator.initialize(nodeIdManager.fixNodeId(),
+                                   globalIdConstraints,
+                                   Collections.emptyMap(),
+                                   idGeneratorConfig);
         }
 
         @Override
@@ -0,0 +1,43 @@
+/*
+ * Copyright (c) 2021 Santanu Sinha <santanu.sinha@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package io.appform.dropwizard.discovery.bundle.id;
+
+/**
+ * Strategy used to allocate exponents for ids generated in the same millisecond
+ */
+public enum AllocationMode {
+    /**
+     * Random exponents checked for collisions under a single lock. This is the default.
+     */
+    RANDOM,
+    /**
+     * Lock free allocation using CAS on a packed time and counter. Scales better with many generating threads.
+     */
+    LOCK_FREE,
+    /**
+     * Random exponents drawn from a per millisecond shuffle of the exponent space. Costs the same for every id,
+     * irrespective of how many ids have been generated in the millisecond.
+     */
+    SHUFFLED,
+    /**
+     * Lock free allocation like {@link #LOCK_FREE}, with exponents handed out in sequence. Ids from a node are
+     * strictly increasing, which keeps inserts into sorted stores append only. The exponent reveals how many ids
+     * were generated before it in the millisecond.
+     */
+    MONOTONIC
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2021 Santanu Sinha <santanu.sinha@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package io.appform.dropwizard.discovery.bundle.id;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Distribution of the number of attempts taken by constrained id generation.
+ * Bucket 0 counts generations that needed a single attempt, bucket i (i &gt; 0) the ones that needed between
+ * 2^(i-1) + 1 and 2^i attempts.
+ */
+public class AttemptHistogram {
+    public static final int BUCKETS = 32;
+
+    private final LongAdder[] buckets = new LongAdder[BUCKETS];
+    private final LongAdder failFastCount = new LongAdder();
+    private final LongAdder exhaustedCount = new LongAdder();
+
+    AttemptHistogram() {
+        for (int i = 0; i < BUCKETS; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    void record(int attempts) {
+        buckets[bucketFor(attempts)].increment();
+    }
+
+    void recordFailFast(int attempts) {
+        record(attempts);
+        failFastCount.increment();
+    }
+
+    void recordExhausted(int attempts) {
+        record(attempts);
+        exhaustedCount.increment();
+    }
+
+    /**
+     * @return Number of generations that ended in a given bucket
+     */
+    public long getCount(int bucket) {
+        return buckets[bucket].sum();
+    }
+
+    /**
+     * @return Largest attempt count that falls in a given bucket
+     */
+    public static long getUpperBound(int bucket) {
+        return 1L << bucket;
+    }
+
+    /**
+     * @return Number of generations stopped by a fail fast constraint
+     */
+    public long getFailFastCount() {
+        return failFastCount.sum();
+    }
+
+    /**
+     * @return Number of generations that ran out of attempts
+     */
+    public long getExhaustedCount() {
+        return exhaustedCount.sum();
+    }
+
+    static int bucketFor(int attempts) {
+        return attempts <= 1
+               ? 0
+               : Integer.SIZE - Integer.numberOfLeadingZeros(attempts - 1);
+    }
+}
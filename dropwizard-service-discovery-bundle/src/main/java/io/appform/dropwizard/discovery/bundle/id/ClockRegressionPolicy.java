@@ -0,0 +1,38 @@
+/*
+ * Copyright (c) 2021 Santanu Sinha <santanu.sinha@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package io.appform.dropwizard.discovery.bundle.id;
+
+/**
+ * What to do when the system clock is found to have moved backwards, typically after an NTP step
+ */
+public enum ClockRegressionPolicy {
+    /**
+     * Keep issuing ids against the latest millisecond seen till the clock catches up. Does not block by itself.
+     * Once that millisecond is exhausted the {@link ExhaustionPolicy} applies. This is the default.
+     */
+    BORROW,
+    /**
+     * Park the calling thread till the clock catches up, as long as the step is within
+     * {@link IdGeneratorConfig#getMaxClockWaitMillis()}. Larger steps fail.
+     */
+    WAIT,
+    /**
+     * Refuse to generate ids with an {@link IllegalStateException} till the clock catches up
+     */
+    FAIL
+}
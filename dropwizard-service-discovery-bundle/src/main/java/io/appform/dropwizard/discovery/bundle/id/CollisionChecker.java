@@ -22,27 +22,48 @@ import lombok.extern.slf4j.Slf4j;
 import java.util.BitSet;
 
 /**
- * Checks collisions between ids in given period
+ * Checks collisions between ids in given period. Not thread safe, see {@link ConcurrentCollisionChecker} for use
+ * without external locking.
  */
 @Slf4j
 public class CollisionChecker {
-    private BitSet bitSet = new BitSet(1000);
+    private final BitSet bitSet;
     private long currentInstant = 0;
+    private int used = 0;
 
     public CollisionChecker() {
-        //Nothing to do here
+        this(IdLayout.DEFAULT.getIdsPerMillisecond());
+    }
+
+    /**
+     * @param capacity Number of locations available in a period, see {@link IdLayout#getIdsPerMillisecond()}
+     */
+    public CollisionChecker(int capacity) {
+        this.bitSet = new BitSet(capacity);
     }
 
     public boolean check(long time, int location) {
         if(currentInstant != time) {
             currentInstant = time;
             bitSet.clear();
+            used = 0;
         }
 
         if(bitSet.get(location)) {
             return false;
         }
         bitSet.set(location);
+        used++;
         return true;
     }
+
+    public boolean isExhausted(long time, int capacity) {
+        return remaining(time, capacity) <= 0;
+    }
+
+    public int remaining(long time, int capacity) {
+        return currentInstant == time
+               ? capacity - used
+               : capacity;
+    }
 }
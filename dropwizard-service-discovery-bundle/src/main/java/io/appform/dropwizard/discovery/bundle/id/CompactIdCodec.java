@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2021 Santanu Sinha <santanu.sinha@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package io.appform.dropwizard.discovery.bundle.id;
+
+import com.google.common.base.Preconditions;
+
+import java.util.Arrays;
+
+/**
+ * Packs the time, node and exponent of an id in the {@link IdLayout#DEFAULT} layout into 64 bits:
+ * milliseconds since {@link #EPOCH} (40 bits) + node (14 bits) + exponent (10 bits).
+ * The packed value is unsigned and is rendered as {@value #LENGTH} base 62 characters drawn from 0-9A-Za-z. Both
+ * the unsigned value and the string sort in time order.
+ */
+final class CompactIdCodec {
+    static final int LENGTH = 11;
+    //2020-01-01T00:00:00Z, leaves room for ids till late 2054
+    static final long EPOCH = 1577836800000L;
+
+    private static final int TIME_BITS = 40;
+    private static final int NODE_BITS = 14;
+    private static final int EXPONENT_BITS = 10;
+    private static final long MAX_TIME_OFFSET = (1L << TIME_BITS) - 1;
+    private static final char[] ALPHABET
+            = "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz".toCharArray();
+    private static final int RADIX = ALPHABET.length;
+    private static final byte[] VALUES = new byte[128];
+
+    static {
+        Arrays.fill(VALUES, (byte) -1);
+        for (int i = 0; i < ALPHABET.length; i++) {
+            VALUES[ALPHABET[i]] = (byte) i;
+        }
+    }
+
+    private CompactIdCodec() {
+    }
+
+    static long encode(long time, int node, int exponent) {
+        final long offset = time - EPOCH;
+        Preconditions.checkState(offset >= 0 && offset <= MAX_TIME_OFFSET,
+                                 "Time %s is outside the range of compact ids", time);
+        Preconditions.checkState(node >= 0 && node < IdLayout.DEFAULT.getNodeCount()
+                                         && exponent >= 0 && exponent < IdLayout.DEFAULT.getIdsPerMillisecond(),
+                                 "Node %s and exponent %s do not fit the default id layout", node, exponent);
+        return (offset << (NODE_BITS + EXPONENT_BITS)) | ((long) node << EXPONENT_BITS) | exponent;
+    }
+
+    static long time(long value) {
+        return (value >>> (NODE_BITS + EXPONENT_BITS)) + EPOCH;
+    }
+
+    static int node(long value) {
+        return (int) ((value >>> EXPONENT_BITS) & ((1L << NODE_BITS) - 1));
+    }
+
+    static int exponent(long value) {
+        return (int) (value & ((1L << EXPONENT_BITS) - 1));
+    }
+
+    /**
+     * @return true if the value could have been produced by {@link #encode(long, int, int)}
+     */
+    static boolean isValid(long value) {
+        return node(value) < IdLayout.DEFAULT.getNodeCount()
+                && exponent(value) < IdLayout.DEFAULT.getIdsPerMillisecond();
+    }
+
+    static String toString(long value) {
+        final char[] chars = new char[LENGTH];
+        long remaining = value;
+        for (int i = LENGTH - 1; i >= 0; i--) {
+            chars[i] = ALPHABET[(int) Long.remainderUnsigned(remaining, RADIX)];
+            remaining = Long.divideUnsigned(remaining, RADIX);
+        }
+        return new String(chars);
+    }
+
+    /**
+     * Decode the last {@value #LENGTH} characters of the string
+     *
+     * @return true if the characters form a valid compact id, the decoded value is passed to the target
+     */
+    static boolean parse(String compactId, IdFields target) {
+        if (null == compactId || compactId.length() < LENGTH) {
+            return false;
+        }
+        final int start = compactId.length() - LENGTH;
+        long value = 0;
+        for (int i = start; i < compactId.length(); i++) {
+            final char ch = compactId.charAt(i);
+            final int digit = ch < VALUES.length ? VALUES[ch] : -1;
+            if (digit < 0 || Long.compareUnsigned(value, Long.divideUnsigned(-1L - digit, RADIX)) > 0) {
+                return false;
+            }
+            value = value * RADIX + digit;
+        }
+        if (!isValid(value)) {
+            return false;
+        }
+        target.set(start, time(value), node(value), exponent(value));
+        return true;
+    }
+}
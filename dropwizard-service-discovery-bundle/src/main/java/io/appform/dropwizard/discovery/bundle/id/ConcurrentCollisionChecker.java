@@ -0,0 +1,158 @@
+/*
+ * Copyright (c) 2021 Santanu Sinha <santanu.sinha@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package io.appform.dropwizard.discovery.bundle.id;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Thread safe variant of {@link CollisionChecker} that does not take locks. Locations are tracked in a single
+ * bitmap of atomic longs that is reused for every period. Each word holds 32 locations in its low half and the
+ * low 32 bits of the period it belongs to in its high half, so a location is claimed with one CAS that also moves a
+ * stale word to the current period. A word is only moved while its period is still the latest one, and a claim
+ * racing with a later period fails its CAS and then sees that period, so nothing has to be cleared or allocated
+ * when the period moves on.
+ * The default 1000 locations would fit in 16 plain words, but such a bitmap has to be cleared or replaced for every
+ * period. Giving half of each word to the stamp doubles the word count to 32 and lets the same array serve every
+ * period. {@link RandomExponentAllocator} claims its exponents here.
+ * Periods older than the current one are rejected outright.
+ */
+public class ConcurrentCollisionChecker {
+    private static final int LOCATIONS_PER_WORD = Integer.SIZE;
+    private static final long MASK_BITS = 0xFFFFFFFFL;
+
+    private final int capacity;
+    private final AtomicLongArray bits;
+    private final AtomicLong latest = new AtomicLong();
+    private final AtomicLong usage = new AtomicLong();
+
+    public ConcurrentCollisionChecker() {
+        this(IdLayout.DEFAULT.getIdsPerMillisecond());
+    }
+
+    /**
+     * @param capacity Number of locations available in a period, see {@link IdLayout#getIdsPerMillisecond()}
+     */
+    public ConcurrentCollisionChecker(int capacity) {
+        this.capacity = capacity;
+        this.bits = new AtomicLongArray((capacity + LOCATIONS_PER_WORD - 1) / LOCATIONS_PER_WORD);
+    }
+
+    /**
+     * Claim a location in the given period
+     *
+     * @param time     Period
+     * @param location Location between 0 and capacity
+     * @return true if the location was free and now belongs to the caller, false if it was already taken, lies
+     * outside the capacity or the period is older than the latest one seen
+     */
+    public boolean check(long time, int location) {
+        if (location < 0 || location >= capacity || !advance(time)) {
+            return false;
+        }
+        final int index = location / LOCATIONS_PER_WORD;
+        final long mask = 1L << (location % LOCATIONS_PER_WORD);
+        final int stamp = (int) time;
+        while (true) {
+            final long word = bits.get(index);
+            final int wordStamp = (int) (word >>> LOCATIONS_PER_WORD);
+            final long claimed;
+            if (wordStamp == stamp) {
+                if ((word & mask) != 0) {
+                    return false;
+                }
+                claimed = word | mask;
+            }
+            else if (latest.get() != time) {
+                return false;
+            }
+            else {
+                claimed = ((long) stamp << LOCATIONS_PER_WORD) | mask;
+            }
+            if (bits.compareAndSet(index, word, claimed)) {
+                countClaim(time);
+                return true;
+            }
+        }
+    }
+
+    /**
+     * @param time     Period
+     * @param location Location between 0 and capacity
+     * @return true if {@link #check(long, int)} would currently claim the location
+     */
+    public boolean isFree(long time, int location) {
+        if (location < 0 || location >= capacity) {
+            return false;
+        }
+        final long current = latest.get();
+        if (current != time) {
+            return current < time;
+        }
+        final long word = bits.get(location / LOCATIONS_PER_WORD);
+        return (int) (word >>> LOCATIONS_PER_WORD) != (int) time
+                || (word & (1L << (location % LOCATIONS_PER_WORD))) == 0;
+    }
+
+    public boolean isExhausted(long time, int capacity) {
+        return remaining(time, capacity) <= 0;
+    }
+
+    public int remaining(long time, int capacity) {
+        final long current = latest.get();
+        if (current != time) {
+            return current < time ? capacity : 0;
+        }
+        final long counted = usage.get();
+        return (int) (counted >>> LOCATIONS_PER_WORD) == (int) time
+               ? capacity - (int) (counted & MASK_BITS)
+               : capacity;
+    }
+
+    private boolean advance(long time) {
+        while (true) {
+            final long current = latest.get();
+            if (current >= time) {
+                return current == time;
+            }
+            if (latest.compareAndSet(current, time)) {
+                return true;
+            }
+        }
+    }
+
+    private void countClaim(long time) {
+        final int stamp = (int) time;
+        while (true) {
+            final long counted = usage.get();
+            final long next;
+            if ((int) (counted >>> LOCATIONS_PER_WORD) == stamp) {
+                next = counted + 1;
+            }
+            else if (latest.get() != time) {
+                return;
+            }
+            else {
+                next = ((long) stamp << LOCATIONS_PER_WORD) | 1;
+            }
+            if (usage.compareAndSet(counted, next)) {
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,236 @@
+/*
+ * Copyright (c) 2021 Santanu Sinha <santanu.sinha@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package io.appform.dropwizard.discovery.bundle.id;
+
+import io.appform.dropwizard.discovery.bundle.id.constraints.IdValidationConstraint;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.IntStream;
+
+/**
+ * Constraints compiled into a flat array. Evaluation stops at the first constraint that rejects an id.
+ * Chains compiled at registration count the rejections of every constraint. They also time a sample of evaluations
+ * and periodically move cheap constraints that reject often to the front. Fail fast constraints never move and
+ * nothing is moved across them, so reordering does not change whether a candidate is retried or given up on.
+ */
+public final class ConstraintChain {
+    static final int SAMPLE_RATE = 64;
+    static final int REORDER_INTERVAL = 256;
+    static final ConstraintChain EMPTY = new ConstraintChain(new IdValidationConstraint[0], null);
+
+    private static final class ConstraintStats {
+        private final LongAdder rejections = new LongAdder();
+        private final LongAdder sampledEvaluations = new LongAdder();
+        private final LongAdder sampledRejections = new LongAdder();
+        private final LongAdder sampledNanos = new LongAdder();
+        private double rank = Double.MAX_VALUE;
+
+        private void sampled(long nanos, boolean rejected) {
+            sampledEvaluations.increment();
+            sampledNanos.add(nanos);
+            if (rejected) {
+                sampledRejections.increment();
+            }
+        }
+
+        /**
+         * Expected time spent per rejection over the last window. Constraints not evaluated in the window keep
+         * their earlier rank, constraints never evaluated rank last.
+         */
+        private double updateRank() {
+            final long evaluations = sampledEvaluations.sumThenReset();
+            final long nanos = sampledNanos.sumThenReset();
+            final long rejected = sampledRejections.sumThenReset();
+            if (evaluations > 0) {
+                rank = rejected == 0
+                       ? Double.MAX_VALUE
+                       : (double) nanos / rejected;
+            }
+            return rank;
+        }
+    }
+
+    private final IdValidationConstraint[] constraints;
+    private final ConstraintStats[] stats;
+    private final boolean[] failFast;
+    private final AtomicInteger samples = new AtomicInteger();
+    private final AtomicBoolean reordering = new AtomicBoolean();
+    private volatile int[] order;
+
+    private ConstraintChain(IdValidationConstraint[] constraints, ConstraintStats[] stats) {
+        this.constraints = constraints;
+        this.stats = stats;
+        this.failFast = new boolean[constraints.length];
+        for (int i = 0; i < constraints.length; i++) {
+            failFast[i] = constraints[i].failFast();
+        }
+        this.order = IntStream.range(0, constraints.length).toArray();
+    }
+
+    /**
+     * Compile constraints into a chain that counts rejections
+     */
+    static ConstraintChain compile(List<IdValidationConstraint> constraints) {
+        return EMPTY.append(constraints);
+    }
+
+    /**
+     * Compile constraints passed for a single generation call. Rejections are not counted.
+     */
+    static ConstraintChain adHoc(List<IdValidationConstraint> constraints) {
+        if (null == constraints || constraints.isEmpty()) {
+            return EMPTY;
+        }
+        return new ConstraintChain(constraints.toArray(new IdValidationConstraint[0]), null);
+    }
+
+    /**
+     * @return New chain with the constraints added at the end, evaluated in registration order until the next
+     * reordering. Statistics of existing constraints carry over.
+     */
+    ConstraintChain append(List<IdValidationConstraint> added) {
+        if (null == added || added.isEmpty()) {
+            return this;
+        }
+        final IdValidationConstraint[] merged = Arrays.copyOf(constraints, constraints.length + added.size());
+        final ConstraintStats[] mergedStats = new ConstraintStats[merged.length];
+        for (int i = 0; i < merged.length; i++) {
+            if (i < constraints.length) {
+                mergedStats[i] = null == stats ? new ConstraintStats() : stats[i];
+            }
+            else {
+                merged[i] = added.get(i - constraints.length);
+                mergedStats[i] = new ConstraintStats();
+            }
+        }
+        return new ConstraintChain(merged, mergedStats);
+    }
+
+    /**
+     * @return Registration index of the first constraint rejecting the id, -1 if all of them accept it
+     */
+    int firstRejection(Id id) {
+        final int[] current = order;
+        if (null == stats) {
+            for (int index : current) {
+                if (!constraints[index].isValid(id)) {
+                    return index;
+                }
+            }
+            return -1;
+        }
+        if (current.length > 1 && ThreadLocalRandom.current().nextInt(SAMPLE_RATE) == 0) {
+            return sampledFirstRejection(id, current);
+        }
+        for (int index : current) {
+            if (!constraints[index].isValid(id)) {
+                stats[index].rejections.increment();
+                return index;
+            }
+        }
+        return -1;
+    }
+
+    private int sampledFirstRejection(Id id, int[] current) {
+        int rejected = -1;
+        for (int index : current) {
+            final long start = System.nanoTime();
+            final boolean valid = constraints[index].isValid(id);
+            stats[index].sampled(System.nanoTime() - start, !valid);
+            if (!valid) {
+                stats[index].rejections.increment();
+                rejected = index;
+                break;
+            }
+        }
+        if (samples.incrementAndGet() % REORDER_INTERVAL == 0) {
+            reorder();
+        }
+        return rejected;
+    }
+
+    /**
+     * Sort every run of constraints between fail fast ones by their rank. Any constraint of a run rejecting a
+     * candidate has the same effect, so only the cost of reaching that decision changes.
+     */
+    void reorder() {
+        if (null == stats || !reordering.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            final double[] ranks = new double[stats.length];
+            for (int i = 0; i < stats.length; i++) {
+                ranks[i] = stats[i].updateRank();
+            }
+            final Integer[] next = Arrays.stream(order).boxed().toArray(Integer[]::new);
+            int start = 0;
+            for (int i = 0; i <= next.length; i++) {
+                if (i == next.length || failFast[next[i]]) {
+                    Arrays.sort(next, start, i, Comparator.comparingDouble(index -> ranks[index]));
+                    start = i + 1;
+                }
+            }
+            order = Arrays.stream(next).mapToInt(Integer::intValue).toArray();
+        }
+        finally {
+            reordering.set(false);
+        }
+    }
+
+    IdValidationConstraint get(int index) {
+        return constraints[index];
+    }
+
+    public int size() {
+        return constraints.length;
+    }
+
+    /**
+     * @return Constraints in registration order
+     */
+    public List<IdValidationConstraint> getConstraints() {
+        return Collections.unmodifiableList(Arrays.asList(constraints));
+    }
+
+    /**
+     * @return Constraints in the order they are currently evaluated
+     */
+    public List<IdValidationConstraint> getEvaluationOrder() {
+        final List<IdValidationConstraint> evaluationOrder = new ArrayList<>(constraints.length);
+        for (int index : order) {
+            evaluationOrder.add(constraints[index]);
+        }
+        return Collections.unmodifiableList(evaluationOrder);
+    }
+
+    /**
+     * @param index Registration index of the constraint
+     * @return Number of ids rejected by the constraint
+     */
+    public long getRejectionCount(int index) {
+        return null == stats ? 0 : stats[index].rejections.sum();
+    }
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright (c) 2021 Santanu Sinha <santanu.sinha@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package io.appform.dropwizard.discovery.bundle.id;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Immutable snapshot of the registered constraints. Registration publishes a new snapshot, so lookups never lock.
+ */
+final class ConstraintRegistry {
+    static final ConstraintRegistry EMPTY = new ConstraintRegistry(ConstraintChain.EMPTY, Collections.emptyMap());
+
+    private final ConstraintChain global;
+    private final Map<String, ConstraintChain> domains;
+
+    private ConstraintRegistry(ConstraintChain global, Map<String, ConstraintChain> domains) {
+        this.global = global;
+        this.domains = domains;
+    }
+
+    ConstraintChain global() {
+        return global;
+    }
+
+    ConstraintChain domain(String domain) {
+        return domains.getOrDefault(domain, ConstraintChain.EMPTY);
+    }
+
+    ConstraintRegistry withGlobal(ConstraintChain chain) {
+        return new ConstraintRegistry(chain, domains);
+    }
+
+    ConstraintRegistry withDomain(String domain, ConstraintChain chain) {
+        return withDomains(Collections.singletonMap(domain, chain));
+    }
+
+    ConstraintRegistry withDomains(Map<String, ConstraintChain> chains) {
+        final Map<String, ConstraintChain> merged = new HashMap<>(domains);
+        merged.putAll(chains);
+        return new ConstraintRegistry(global, Collections.unmodifiableMap(merged));
+    }
+}
@@ -0,0 +1,728 @@
+/*
+ * Copyright (c) 2021 Santanu Sinha <santanu.sinha@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package io.appform.dropwizard.discovery.bundle.id;
+
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import io.appform.dropwizard.discovery.bundle.id.constraints.IdValidationConstraint;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.function.Predicate;
+
+/**
+ * Id generator with its own node id, collision space, constraints and pools. Generators that share a node id must
+ * be used with distinct prefixes, as each one only avoids collisions among the ids it generates itself.
+ * {@link IdGenerator} exposes a shared instance through static methods.
+ */
+@Slf4j
+public class DefaultIdGenerator {
+
+    static final int MAX_ATTEMPTS = 512;
+
+    enum IdValidationState {
+        VALID,
+        INVALID_RETRYABLE,
+        INVALID_NON_RETRYABLE
+    }
+
+    private final Meter exhaustionCount = new Meter();
+    private final Meter generatedCount = new Meter();
+    private final Meter collisionCount = new Meter();
+    private final Meter failFastCount = new Meter();
+    private final Meter attemptLimitCount = new Meter();
+    private final Meter clockWaitCount = new Meter();
+    private final Meter clockBorrowCount = new Meter();
+    private final Meter clockFailCount = new Meter();
+    private volatile GenerationObserver observer = GenerationObserver.NOOP;
+    private volatile Engine engine = new Engine(0, createAllocator(new IdGeneratorConfig(), 0L));
+    private volatile ConstraintRegistry constraints = ConstraintRegistry.EMPTY;
+    private final Map<String, IdPool> prefixPools = new ConcurrentHashMap<>();
+    private final Map<String, Map<String, IdPool>> domainPools = new ConcurrentHashMap<>();
+    private ScheduledExecutorService poolRefiller;
+    private volatile int maxAttempts = MAX_ATTEMPTS;
+    private final Map<String, Integer> domainMaxAttempts = new ConcurrentHashMap<>();
+    private final AttemptHistogram defaultAttemptHistogram = new AttemptHistogram();
+    private final Map<String, AttemptHistogram> domainAttemptHistograms = new ConcurrentHashMap<>();
+
+    public DefaultIdGenerator(int node) {
+        this.engine = new Engine(node, engine.allocator);
+    }
+
+    public DefaultIdGenerator(int node, IdGeneratorConfig config) {
+        this(node);
+        configure(config);
+    }
+
+    public DefaultIdGenerator(final int node,
+                              final List<IdValidationConstraint> globalConstraints,
+                              final Map<String, List<IdValidationConstraint>> domainSpecificConstraints,
+                              final IdGeneratorConfig config) {
+        this(node, config);
+        initialize(node, globalConstraints, domainSpecificConstraints);
+    }
+
+    /**
+     * Drop registered constraints, attempt budgets and pools
+     */
+    public synchronized void cleanUp() {
+        constraints = ConstraintRegistry.EMPTY;
+        prefixPools.values().forEach(IdPool::stop);
+        prefixPools.clear();
+        domainPools.values().forEach(pools -> pools.values().forEach(IdPool::stop));
+        domainPools.clear();
+        domainMaxAttempts.clear();
+        if (null != poolRefiller) {
+            poolRefiller.shutdownNow();
+            poolRefiller = null;
+        }
+    }
+
+    synchronized void initialize(int node) {
+        engine = new Engine(node, engine.allocator);
+        clearPools();
+    }
+
+    synchronized void initialize(final int node,
+                                 final List<IdValidationConstraint> globalConstraints,
+                                 final Map<String, List<IdValidationConstraint>> domainSpecificConstraints) {
+        final Map<String, ConstraintChain> domainChains = new HashMap<>();
+        domainSpecificConstraints.forEach(
+                (domain, domainConstraints) -> domainChains.put(domain, ConstraintChain.compile(domainConstraints)));
+        initialize(node);
+        constraints = constraints.withGlobal(ConstraintChain.compile(globalConstraints))
+                .withDomains(domainChains);
+    }
+
+    synchronized void initialize(final int node,
+                                 final List<IdValidationConstraint> globalConstraints,
+                                 final Map<String, List<IdValidationConstraint>> domainSpecificConstraints,
+                                 final IdGeneratorConfig config) {
+        initialize(node, globalConstraints, domainSpecificConstraints);
+        configure(config);
+    }
+
+    synchronized void initialize(int node, IdGeneratorConfig config) {
+        initialize(node);
+        configure(config);
+    }
+
+    /**
+     * @return Number of times id generation found all exponents of the current millisecond used up
+     */
+    public long getExhaustionCount() {
+        return exhaustionCount.getCount();
+    }
+
+    /**
+     * @return Layout of the ids being generated, needed to parse them back
+     */
+    public IdLayout getLayout() {
+        return engine.allocator.layout();
+    }
+
+    /**
+     * Parse an id generated by this generator, falling back to {@link IdLayout#DEFAULT} for ids generated before
+     * a custom layout was configured. A string that fits both layouts is read with the configured one.
+     *
+     * @param idString String idString
+     * @return Id if the string matches the layout of this generator or the default layout
+     */
+    public Optional<Id> parse(String idString) {
+        final IdLayout layout = getLayout();
+        final Optional<Id> id = IdGenerator.parse(idString, layout);
+        if (id.isPresent() || IdLayout.DEFAULT.equals(layout)) {
+            return id;
+        }
+        return IdGenerator.parse(idString, IdLayout.DEFAULT);
+    }
+
+    /**
+     * @return Number of times the clock was found to have moved backwards, whatever the
+     * {@link ClockRegressionPolicy} did about it
+     */
+    public long getClockRegressionCount() {
+        return clockWaitCount.getCount() + clockBorrowCount.getCount() + clockFailCount.getCount();
+    }
+
+    /**
+     * Publish generation rates, collisions, exhaustion, clock regressions and per domain attempts and latency of
+     * constrained generation to a metric registry. Metrics registered earlier under the same name are replaced.
+     *
+     * @param registry Registry to publish to
+     * @param name     Prefix for the names of the published metrics
+     */
+    public synchronized void registerMetrics(MetricRegistry registry, String name) {
+        Preconditions.checkArgument(null != registry, "Provide a non null metric registry");
+        observer = new IdGeneratorMetrics(registry, name, generatedCount, collisionCount, exhaustionCount,
+                                          failFastCount, attemptLimitCount,
+                                          clockWaitCount, clockBorrowCount, clockFailCount);
+    }
+
+    /**
+     * @param domain Domain for constraint selection, null for generation with explicitly passed constraints
+     * @return Attempts taken by constrained generation for the domain
+     */
+    public AttemptHistogram getAttemptHistogram(String domain) {
+        return null == domain
+               ? defaultAttemptHistogram
+               : domainAttemptHistograms.computeIfAbsent(domain, key -> new AttemptHistogram());
+    }
+
+    /**
+     * Override the number of candidates tried by constrained generation for a domain
+     *
+     * @param domain      Domain for constraint selection
+     * @param maxAttempts Maximum number of candidates to try for each id
+     */
+    public void registerDomainMaxAttempts(String domain, int maxAttempts) {
+        Preconditions.checkArgument(maxAttempts > 0, "Provide a positive maxAttempts");
+        domainMaxAttempts.put(domain, maxAttempts);
+    }
+
+    public synchronized void registerGlobalConstraints(IdValidationConstraint... constraints) {
+        registerGlobalConstraints(ImmutableList.copyOf(constraints));
+    }
+
+    public synchronized void registerGlobalConstraints(List<IdValidationConstraint> constraints) {
+        Preconditions.checkArgument(null != constraints && !constraints.isEmpty());
+        this.constraints = this.constraints.withGlobal(
+                this.constraints.global().append(constraints));
+    }
+
+    public synchronized void registerDomainSpecificConstraints(String domain, IdValidationConstraint... validationConstraints) {
+        registerDomainSpecificConstraints(domain, ImmutableList.copyOf(validationConstraints));
+    }
+
+    public synchronized void registerDomainSpecificConstraints(String domain, List<IdValidationConstraint> validationConstraints) {
+        Preconditions.checkArgument(null != validationConstraints && !validationConstraints.isEmpty());
+        constraints = constraints.withDomain(domain, constraints.domain(domain).append(validationConstraints));
+    }
+
+    /**
+     * @return Compiled global constraints along with the number of ids each one rejected
+     */
+    public ConstraintChain getGlobalConstraintChain() {
+        return constraints.global();
+    }
+
+    /**
+     * @param domain Domain for constraint selection
+     * @return Compiled constraints of the domain along with the number of ids each one rejected
+     */
+    public ConstraintChain getConstraintChain(String domain) {
+        return constraints.domain(domain);
+    }
+
+    /**
+     * Keep a pool of pre-generated ids for the prefix. {@link #generate(String)} hands out ids from the pool and
+     * generates directly only when the pool runs dry.
+     *
+     * @param prefix String prefix
+     * @param config Pool sizing
+     */
+    public synchronized void registerPool(String prefix, IdPoolConfig config) {
+        validatePoolConfig(config);
+        final IdPool existing = prefixPools.put(
+                prefix, new IdPool(count -> createBatch(prefix, count), config, poolRefiller()));
+        if (null != existing) {
+            existing.stop();
+        }
+    }
+
+    /**
+     * Keep a pool of pre-generated ids matching the constraints of the domain.
+     * {@link #generateWithConstraints(String, String)} hands out ids from the pool and generates directly only when
+     * the pool runs dry.
+     *
+     * @param prefix String prefix
+     * @param domain Domain for constraint selection
+     * @param config Pool sizing
+     */
+    public synchronized void registerPool(String prefix, String domain, IdPoolConfig config) {
+        validatePoolConfig(config);
+        final IdPool existing = domainPools.computeIfAbsent(domain, key -> new ConcurrentHashMap<>())
+                .put(prefix,
+                     new IdPool(count -> createBatchWithConstraints(prefix, domain, count), config, poolRefiller()));
+        if (null != existing) {
+            existing.stop();
+        }
+    }
+
+    /**
+     * Generate id with given prefix
+     *
+     * @param prefix String prefix with will be used to blindly merge
+     * @return Generated Id
+     */
+    public Id generate(String prefix) {
+        if (!prefixPools.isEmpty()) {
+            final IdPool pool = prefixPools.get(prefix);
+            if (null != pool) {
+                final Optional<Id> pooled = pool.poll();
+                if (pooled.isPresent()) {
+                    generatedCount.mark();
+                    return pooled.get();
+                }
+            }
+        }
+        generatedCount.mark();
+        return generateDirect(prefix);
+    }
+
+    private Id generateDirect(String prefix) {
+        while (true) {
+            final Engine current = engine;
+            final IdInfo idInfo = current.allocator.allocate();
+            //Null only if the allocator got replaced by a reconfiguration, retry on the new one
+            if (null != idInfo) {
+                return Id.of(prefix, idInfo.time, current.node, idInfo.exponent, current.allocator.layout());
+            }
+        }
+    }
+
+    /**
+     * Generate id that mathces all passed constraints.
+     * NOTE: There are performance implications for this.
+     * The evaluation of constraints will take it's toll on id generation rates. Tun rests to check speed.
+     *
+     * @param prefix        String prefix
+     * @param domain Domain for constraint selection
+     * @return
+     */
+    public Optional<Id> generateWithConstraints(String prefix, String domain) {
+        if (!domainPools.isEmpty()) {
+            final IdPool pool = domainPools.getOrDefault(domain, Collections.emptyMap()).get(prefix);
+            if (null != pool) {
+                final Optional<Id> pooled = pool.poll();
+                if (pooled.isPresent()) {
+                    generatedCount.mark();
+                    return pooled;
+                }
+            }
+        }
+        return generateWithConstraints(prefix, domain, true);
+    }
+
+    /**
+     * Generate id that mathces all passed constraints.
+     * NOTE: There are performance implications for this.
+     * The evaluation of constraints will take it's toll on id generation rates. Tun rests to check speed.
+     *
+     * @param prefix        String prefix
+     * @param domain Domain for constraint selection
+     * @param skipGlobal Skip global constrains and use only passed ones
+     * @return Id if it could be generated
+     */
+    public Optional<Id> generateWithConstraints(String prefix, String domain, boolean skipGlobal) {
+        return generateWithConstraints(prefix,
+                                       domain,
+                                       getConstraintChain(domain),
+                                       skipGlobal,
+                                       domainMaxAttempts.getOrDefault(domain, maxAttempts),
+                                       getAttemptHistogram(domain));
+    }
+
+    /**
+     * Generate id that mathces all passed constraints.
+     * NOTE: There are performance implications for this.
+     * The evaluation of constraints will take it's toll on id generation rates. Tun rests to check speed.
+     *
+     * @param prefix        String prefix
+     * @param inConstraints Constraints that need to be validate.
+     * @return Id if it could be generated
+     */
+    public Optional<Id> generateWithConstraints(String prefix, final List<IdValidationConstraint> inConstraints) {
+        return generateWithConstraints(prefix, inConstraints, false);
+    }
+
+    /**
+     * Generate id that mathces all passed constraints.
+     * NOTE: There are performance implications for this.
+     * The evaluation of constraints will take it's toll on id generation rates. Tun rests to check speed.
+     *
+     * @param prefix        String prefix
+     * @param inConstraints Constraints that need to be validate.
+     * @param skipGlobal Skip global constrains and use only passed ones
+     * @return Id if it could be generated
+     */
+    public Optional<Id> generateWithConstraints(String prefix, final List<IdValidationConstraint> inConstraints, boolean skipGlobal) {
+        return generateWithConstraints(prefix,
+                                       null,
+                                       ConstraintChain.adHoc(inConstraints),
+                                       skipGlobal,
+                                       maxAttempts,
+                                       defaultAttemptHistogram);
+    }
+
+    private Optional<Id> generateWithConstraints(String prefix,
+                                                 String domain,
+                                                 final ConstraintChain inConstraints,
+                                                 boolean skipGlobal,
+                                                 int maxAttempts,
+                                                 AttemptHistogram histogram) {
+        final GenerationObserver currentObserver = observer;
+        final long start = currentObserver == GenerationObserver.NOOP ? 0L : System.nanoTime();
+        RuntimeException lastError = null;
+        for (int attempt = 1; attempt <= maxAttempts; attempt++) {
+            final Id id = generateDirect(prefix);
+            final IdValidationState state;
+            try {
+                state = validateId(inConstraints, id, skipGlobal);
+            }
+            catch (RuntimeException e) {
+                lastError = e;
+                continue;
+            }
+            if (state == IdValidationState.VALID) {
+                histogram.record(attempt);
+                generatedCount.mark();
+                observe(currentObserver, domain, attempt, start);
+                return Optional.of(id);
+            }
+            if (state == IdValidationState.INVALID_NON_RETRYABLE) {
+                histogram.recordFailFast(attempt);
+                failFastCount.mark();
+                observe(currentObserver, domain, attempt, start);
+                return Optional.empty();
+            }
+        }
+        histogram.recordExhausted(maxAttempts);
+        attemptLimitCount.mark();
+        observe(currentObserver, domain, maxAttempts, start);
+        log.error("Failed to generate id with prefix " + prefix + " after max attempts (" + maxAttempts + ")", lastError);
+        return Optional.empty();
+    }
+
+    /**
+     * Generate multiple ids with given prefix.
+     * Exponents are reserved a millisecond at a time, so this is cheaper than calling {@link #generate(String)}
+     * in a loop.
+     *
+     * @param prefix String prefix with will be used to blindly merge
+     * @param count  Number of ids needed
+     * @return Generated ids
+     */
+    public Id[] generateBatch(String prefix, int count) {
+        final Id[] ids = createBatch(prefix, count);
+        generatedCount.mark(ids.length);
+        return ids;
+    }
+
+    private Id[] createBatch(String prefix, int count) {
+        Preconditions.checkArgument(count >= 0, "Provide a non-negative count");
+        final Id[] ids = new Id[count];
+        int generated = 0;
+        while (generated < count) {
+            final Id[] reserved = reserve(prefix, count - generated);
+            System.arraycopy(reserved, 0, ids, generated, reserved.length);
+            generated += reserved.length;
+        }
+        return ids;
+    }
+
+    /**
+     * Generate multiple ids that match all constraints registered for the domain.
+     *
+     * @param prefix String prefix
+     * @param domain Domain for constraint selection
+     * @param count  Number of ids needed
+     * @return Generated ids. Can be fewer than count, see
+     * {@link #generateBatchWithConstraints(String, List, boolean, int)}.
+     */
+    public Id[] generateBatchWithConstraints(String prefix, String domain, int count) {
+        final Id[] ids = createBatchWithConstraints(prefix, domain, count);
+        generatedCount.mark(ids.length);
+        return ids;
+    }
+
+    /**
+     * Generate multiple ids that match all passed constraints.
+     * Candidates are drawn a block of exponents at a time. Every requested id gets the same number of attempts as
+     * {@link #generateWithConstraints(String, List, boolean)}.
+     *
+     * @param prefix        String prefix
+     * @param inConstraints Constraints that need to be validate.
+     * @param skipGlobal    Skip global constrains and use only passed ones
+     * @param count         Number of ids needed
+     * @return Generated ids. Fewer than count if a fail fast constraint rejected a candidate or attempts ran out.
+     */
+    public Id[] generateBatchWithConstraints(String prefix,
+                                             final List<IdValidationConstraint> inConstraints,
+                                             boolean skipGlobal,
+                                             int count) {
+        final Id[] ids = createBatchWithConstraints(prefix,
+                                                    ConstraintChain.adHoc(inConstraints),
+                                                    skipGlobal,
+                                                    count,
+                                                    maxAttempts);
+        generatedCount.mark(ids.length);
+        return ids;
+    }
+
+    private Id[] createBatchWithConstraints(String prefix, String domain, int count) {
+        return createBatchWithConstraints(prefix,
+                                          getConstraintChain(domain),
+                                          true,
+                                          count,
+                                          domainMaxAttempts.getOrDefault(domain, maxAttempts));
+    }
+
+    private Id[] createBatchWithConstraints(String prefix,
+                                            final ConstraintChain inConstraints,
+                                            boolean skipGlobal,
+                                            int count,
+                                            int attemptsPerId) {
+        Preconditions.checkArgument(count >= 0, "Provide a non-negative count");
+        final Id[] ids = new Id[count];
+        final long totalAttempts = (long) attemptsPerId * count;
+        long attempts = 0;
+        int generated = 0;
+        while (generated < count && attempts < totalAttempts) {
+            final Id[] candidates = reserve(prefix, (int) Math.min(count - generated, totalAttempts - attempts));
+            for (Id id : candidates) {
+                attempts++;
+                final IdValidationState state;
+                try {
+                    state = validateId(inConstraints, id, skipGlobal);
+                }
+                catch (RuntimeException e) {
+                    continue;
+                }
+                if (state == IdValidationState.VALID) {
+                    ids[generated++] = id;
+                }
+                else if (state == IdValidationState.INVALID_NON_RETRYABLE) {
+                    failFastCount.mark();
+                    return Arrays.copyOf(ids, generated);
+                }
+            }
+        }
+        if (generated < count) {
+            attemptLimitCount.mark();
+            log.error("Generated only {} of {} ids with prefix {} after max attempts ({})",
+                      generated, count, prefix, totalAttempts);
+            return Arrays.copyOf(ids, generated);
+        }
+        return ids;
+    }
+
+    private static void observe(GenerationObserver observer, String domain, int attempts, long start) {
+        if (observer != GenerationObserver.NOOP) {
+            observer.constrainedGeneration(domain, attempts, System.nanoTime() - start);
+        }
+    }
+
+    private static void validatePoolConfig(IdPoolConfig config) {
+        Preconditions.checkArgument(null != config && config.getCapacity() > 0,
+                                    "Provide a pool config with a positive capacity");
+        Preconditions.checkArgument(config.getLowWatermark() >= 0 && config.getLowWatermark() <= config.getCapacity(),
+                                    "Provide a low watermark between 0 and capacity");
+        Preconditions.checkArgument(config.getMaxStalenessMillis() > 0 && config.getRefillIntervalMillis() > 0,
+                                    "Provide positive maxStalenessMillis and refillIntervalMillis");
+    }
+
+    private ScheduledExecutorService poolRefiller() {
+        if (null == poolRefiller) {
+            poolRefiller = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                final Thread thread = new Thread(runnable, "id-pool-refiller");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return poolRefiller;
+    }
+
+    int nodeId() {
+        return engine.node;
+    }
+
+    /**
+     * Generate an id the filter accepts that also passes the global constraints. Unlike generation with constraints,
+     * candidates the filter rejects are not used up, see {@link ExponentAllocator#allocateMatching}.
+     *
+     * @param filter        Decides on candidate ids
+     * @param maxCandidates Number of candidates to offer to the filter for each id
+     * @return Id if one could be generated
+     */
+    Optional<Id> generateMatching(String prefix, Predicate<Id> filter, int maxCandidates) {
+        for (int attempt = 0; attempt < maxAttempts; attempt++) {
+            final Id id = claimMatching(prefix, filter, maxCandidates);
+            if (null == id) {
+                return Optional.empty();
+            }
+            switch (validateId(ConstraintChain.EMPTY, id, false)) {
+                case VALID:
+                    generatedCount.mark();
+                    return Optional.of(id);
+                case INVALID_NON_RETRYABLE:
+                    return Optional.empty();
+                default:
+                    break;
+            }
+        }
+        return Optional.empty();
+    }
+
+    private Id claimMatching(String prefix, Predicate<Id> filter, int maxCandidates) {
+        while (true) {
+            final Engine current = engine;
+            final IdLayout layout = current.allocator.layout();
+            final Id[] accepted = new Id[1];
+            final IdInfo idInfo = current.allocator.allocateMatching((time, exponent) -> {
+                final Id candidate = Id.of(prefix, time, current.node, exponent, layout);
+                if (!filter.test(candidate)) {
+                    return false;
+                }
+                accepted[0] = candidate;
+                return true;
+            }, maxCandidates);
+            if (null != idInfo) {
+                return accepted[0];
+            }
+            //Null as well if the allocator got replaced by a reconfiguration, retry on the new one
+            if (current == engine) {
+                return null;
+            }
+        }
+    }
+
+    /**
+     * Generate ids from a single millisecond without counting them as generated
+     *
+     * @return Between 1 and maxCount ids
+     */
+    Id[] reserve(String prefix, int maxCount) {
+        while (true) {
+            final Engine current = engine;
+            final ExponentBlock block = current.allocator.allocateBlock(maxCount);
+            if (null != block) {
+                final Id[] ids = new Id[block.exponents.length];
+                for (int i = 0; i < ids.length; i++) {
+                    ids[i] = Id.of(prefix, block.time, current.node, block.exponents[i], block.layout);
+                }
+                return ids;
+            }
+        }
+    }
+
+    private synchronized void configure(IdGeneratorConfig config) {
+        Preconditions.checkArgument(null != config
+                                            && null != config.getAllocationMode()
+                                            && null != config.getExhaustionPolicy()
+                                            && null != config.getEntropySource()
+                                            && null != config.getClockRegressionPolicy(),
+                                    "Provide a non null id generator config with allocation mode, exhaustion policy,"
+                                            + " entropy source and clock regression policy");
+        Preconditions.checkArgument(config.getMaxBorrowMillis() >= 0, "Provide a non-negative maxBorrowMillis");
+        Preconditions.checkArgument(config.getMaxClockWaitMillis() >= 0, "Provide a non-negative maxClockWaitMillis");
+        Preconditions.checkArgument(config.getMaxAttempts() > 0, "Provide a positive maxAttempts");
+        final Engine current = engine;
+        //The new allocator starts after the last millisecond of the old one, so that ids issued across the switch
+        //cannot collide and monotonic ids stay ordered
+        final long lastTime = current.allocator.retire();
+        engine = new Engine(current.node, createAllocator(config, lastTime + 1));
+        maxAttempts = config.getMaxAttempts();
+        clearPools();
+    }
+
+    /**
+     * Pooled ids carry the node and layout of the engine that generated them, drop them once the engine changes
+     */
+    private void clearPools() {
+        prefixPools.values().forEach(IdPool::clear);
+        domainPools.values().forEach(pools -> pools.values().forEach(IdPool::clear));
+    }
+
+    private ExponentAllocator createAllocator(IdGeneratorConfig config, long startTime) {
+        final IdLayout layout = config.layout();
+        final ExhaustionHandler exhaustionHandler = new ExhaustionHandler(config.getExhaustionPolicy(),
+                                                                          config.getMaxBorrowMillis(),
+                                                                          exhaustionCount);
+        final MonotonicClock clock = new MonotonicClock(config.getClockRegressionPolicy(),
+                                                        config.getMaxClockWaitMillis(),
+                                                        clockWaitCount,
+                                                        clockBorrowCount,
+                                                        clockFailCount);
+        switch (config.getAllocationMode()) {
+            case LOCK_FREE:
+                return new LockFreeExponentAllocator(layout, clock, exhaustionHandler, startTime);
+            case MONOTONIC:
+                return new SequentialExponentAllocator(layout, clock, exhaustionHandler, startTime);
+            case SHUFFLED:
+                return new ShuffledExponentAllocator(layout,
+                                                     clock,
+                                                     exhaustionHandler,
+                                                     config.getEntropySource(),
+                                                     startTime);
+            case RANDOM:
+            default:
+                return new RandomExponentAllocator(layout,
+                                                   clock,
+                                                   exhaustionHandler,
+                                                   config.getEntropySource(),
+                                                   collisionCount,
+                                                   startTime);
+        }
+    }
+
+    IdValidationState validateId(ConstraintChain inConstraints, Id id, boolean skipGlobal) {
+        //First evaluate global constraints
+        if (!skipGlobal) {
+            final ConstraintChain global = constraints.global();
+            final int rejected = global.firstRejection(id);
+            if (rejected >= 0) {
+                return rejectionState(global.get(rejected));
+            }
+        }
+        //Evaluate local + domain constraints
+        final int rejected = inConstraints.firstRejection(id);
+        return rejected >= 0
+               ? rejectionState(inConstraints.get(rejected))
+               : IdValidationState.VALID;
+    }
+
+    /**
+     * Node id along with the allocator that generates ids for it, published together
+     */
+    private static final class Engine {
+        private final int node;
+        private final ExponentAllocator allocator;
+
+        private Engine(int node, ExponentAllocator allocator) {
+            this.node = node;
+            this.allocator = allocator;
+        }
+    }
+
+    private static IdValidationState rejectionState(IdValidationConstraint constraint) {
+        return constraint.failFast()
+               ? IdValidationState.INVALID_NON_RETRYABLE
+               : IdValidationState.INVALID_RETRYABLE;
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) 2021 Santanu Sinha <santanu.sinha@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package io.appform.dropwizard.discovery.bundle.id;
+
+import java.security.SecureRandom;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Source of random exponents for {@link AllocationMode#RANDOM} and {@link AllocationMode#SHUFFLED}.
+ * Exponents need to be spread out, not unpredictable, so the non cryptographic sources are safe to use.
+ */
+public enum EntropySource {
+    /**
+     * {@link SecureRandom} seeded from the clock. This is the default.
+     */
+    SECURE_RANDOM {
+        @Override
+        IntUnaryOperator create() {
+            final SecureRandom random = new SecureRandom(
+                    Long.toBinaryString(System.currentTimeMillis())
+                            .getBytes()
+            );
+            return random::nextInt;
+        }
+    },
+    /**
+     * {@link ThreadLocalRandom} of the generating thread. Never blocks and keeps no shared state.
+     */
+    THREAD_LOCAL_RANDOM {
+        @Override
+        IntUnaryOperator create() {
+            return bound -> ThreadLocalRandom.current().nextInt(bound);
+        }
+    },
+    /**
+     * {@link SplittableRandom} owned by the allocator. Relies on the allocator serializing its callers.
+     */
+    SPLITTABLE_RANDOM {
+        @Override
+        IntUnaryOperator create() {
+            return new SplittableRandom()::nextInt;
+        }
+    };
+
+    /**
+     * @return Function returning a random int between 0 (inclusive) and the given bound (exclusive)
+     */
+    abstract IntUnaryOperator create();
+}
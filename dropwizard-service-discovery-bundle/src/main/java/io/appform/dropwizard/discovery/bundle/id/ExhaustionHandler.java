@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2021 Santanu Sinha <santanu.sinha@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package io.appform.dropwizard.discovery.bundle.id;
+
+import com.codahale.metrics.Meter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Applies the configured {@link ExhaustionPolicy} when an allocator runs out of exponents for a millisecond
+ */
+@Slf4j
+class ExhaustionHandler {
+    //Thread.onSpinWait() is only available from java 9 onwards
+    private static final MethodHandle ON_SPIN_WAIT = spinWaitHandle();
+
+    private final ExhaustionPolicy policy;
+    private final long maxBorrowMillis;
+    private final Meter exhaustionCount;
+
+    ExhaustionHandler(ExhaustionPolicy policy, long maxBorrowMillis, Meter exhaustionCount) {
+        this.policy = policy;
+        this.maxBorrowMillis = maxBorrowMillis;
+        this.exhaustionCount = exhaustionCount;
+    }
+
+    /**
+     * Called when all exponents for a millisecond have been handed out.
+     *
+     * @param exhaustedTime Millisecond that has been exhausted
+     * @return Millisecond to allocate from next. Always greater than exhaustedTime.
+     */
+    long onExhausted(long exhaustedTime) {
+        exhaustionCount.mark();
+        return nextMillisecond(exhaustedTime);
+    }
+
+    /**
+     * Move on from a millisecond as the policy prescribes, without counting it as exhausted
+     *
+     * @param time Millisecond to move on from
+     * @return Millisecond to allocate from next. Always greater than time.
+     */
+    long nextMillisecond(long time) {
+        switch (policy) {
+            case BORROW:
+                if (time + 1 - System.currentTimeMillis() <= maxBorrowMillis) {
+                    return time + 1;
+                }
+                return awaitNextTick(time, true);
+            case PARK:
+                return awaitNextTick(time, true);
+            case SPIN:
+            default:
+                return awaitNextTick(time, false);
+        }
+    }
+
+    private static long awaitNextTick(long exhaustedTime, boolean park) {
+        long now = System.currentTimeMillis();
+        while (now <= exhaustedTime) {
+            if (park) {
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(exhaustedTime + 1 - now));
+            }
+            else {
+                onSpinWait();
+            }
+            now = System.currentTimeMillis();
+        }
+        return now;
+    }
+
+    private static void onSpinWait() {
+        if (null == ON_SPIN_WAIT) {
+            return;
+        }
+        try {
+            ON_SPIN_WAIT.invokeExact();
+        }
+        catch (Throwable t) {
+            log.trace("Spin wait hint failed", t);
+        }
+    }
+
+    private static MethodHandle spinWaitHandle() {
+        try {
+            return MethodHandles.lookup()
+                    .findStatic(Thread.class, "onSpinWait", MethodType.methodType(void.class));
+        }
+        catch (NoSuchMethodException | IllegalAccessException e) {
+            return null;
+        }
+    }
+}
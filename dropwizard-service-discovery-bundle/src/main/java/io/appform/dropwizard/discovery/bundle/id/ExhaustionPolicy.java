@@ -0,0 +1,37 @@
+/*
+ * Copyright (c) 2021 Santanu Sinha <santanu.sinha@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package io.appform.dropwizard.discovery.bundle.id;
+
+/**
+ * What to do when all exponents for the current millisecond have been handed out
+ */
+public enum ExhaustionPolicy {
+    /**
+     * Busy wait till the clock moves to the next millisecond. Lowest latency, burns a core while waiting.
+     */
+    SPIN,
+    /**
+     * Park the calling thread till the next millisecond.
+     */
+    PARK,
+    /**
+     * Issue ids against the next millisecond ahead of the clock, as long as the drift stays within
+     * {@link IdGeneratorConfig#getMaxBorrowMillis()}. Parks once the drift limit is reached.
+     */
+    BORROW
+}
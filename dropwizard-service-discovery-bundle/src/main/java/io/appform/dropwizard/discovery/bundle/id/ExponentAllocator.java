@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2021 Santanu Sinha <santanu.sinha@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package io.appform.dropwizard.discovery.bundle.id;
+
+/**
+ * Allocates a unique exponent within a millisecond for the current node.
+ * Implementations must never hand out the same (time, exponent) pair twice.
+ */
+interface ExponentAllocator {
+    /**
+     * @return Allocated exponent, null once the allocator has been retired
+     */
+    IdInfo allocate();
+
+    /**
+     * Reserve multiple exponents from the same millisecond in one go.
+     *
+     * @param maxCount Maximum number of exponents needed. Must be positive.
+     * @return Between 1 and maxCount exponents, fewer if the millisecond does not have enough left. Null once the
+     * allocator has been retired.
+     */
+    ExponentBlock allocateBlock(int maxCount);
+
+    /**
+     * Allocate an exponent the filter accepts. Candidates of the current millisecond are offered in random order
+     * and the rejected ones stay free for other callers. Once no free exponent of the millisecond is accepted, the
+     * search moves on to the next millisecond.
+     * This default allocates and then tests, so rejected candidates are used up. It is meant for allocators that
+     * hand out exponents in a fixed order and cannot skip ahead.
+     *
+     * @param filter        Decides on candidate exponents
+     * @param maxCandidates Number of candidates to offer before giving up
+     * @return Accepted exponent, null if none was accepted or the allocator has been retired
+     */
+    default IdInfo allocateMatching(ExponentFilter filter, int maxCandidates) {
+        for (int i = 0; i < maxCandidates; i++) {
+            final IdInfo idInfo = allocate();
+            if (null == idInfo || filter.accept(idInfo.time, idInfo.exponent)) {
+                return idInfo;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Stop handing out exponents. Called once, when the allocator is replaced.
+     *
+     * @return Latest millisecond exponents may have been handed out for
+     */
+    long retire();
+
+    /**
+     * @return Layout the exponents are allocated for
+     */
+    IdLayout layout();
+
+    /**
+     * Decides whether an exponent of a millisecond is wanted
+     */
+    @FunctionalInterface
+    interface ExponentFilter {
+        boolean accept(long time, int exponent);
+    }
+}
@@ -0,0 +1,33 @@
+/*
+ * Copyright (c) 2021 Santanu Sinha <santanu.sinha@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package io.appform.dropwizard.discovery.bundle.id;
+
+/**
+ * A set of exponents reserved together from a single millisecond
+ */
+final class ExponentBlock {
+    final long time;
+    final int[] exponents;
+    final IdLayout layout;
+
+    ExponentBlock(long time, int[] exponents, IdLayout layout) {
+        this.time = time;
+        this.exponents = exponents;
+        this.layout = layout;
+    }
+}
@@ -17,21 +17,184 @@
 
 package io.appform.dropwizard.discovery.bundle.id;
 
-import lombok.*;
+import com.google.common.base.Preconditions;
+import lombok.Builder;
+import lombok.NoArgsConstructor;
 
 import java.util.Date;
+import java.util.Objects;
 
 /**
- * A representation of an ID
+ * A representation of an ID.
+ * Ids created by {@link IdGenerator} only hold the prefix, time, node and exponent. The id string and the
+ * generated date are built the first time they are asked for.
  */
-@Data
-@AllArgsConstructor
 @NoArgsConstructor
-@Builder
-@ToString
 public class Id {
-    private String id;
-    private Date generatedDate;
+    private String prefix;
+    private long generatedTime;
     private int node;
     private int exponent;
+    private String id;
+    private volatile Date generatedDate;
+    private IdLayout layout;
+
+    @Builder
+    public Id(String id, Date generatedDate, int node, int exponent) {
+        this.id = id;
+        this.generatedDate = generatedDate;
+        this.generatedTime = null == generatedDate ? 0 : generatedDate.getTime();
+        this.node = node;
+        this.exponent = exponent;
+    }
+
+    private Id(String prefix, long generatedTime, int node, int exponent, IdLayout layout) {
+        this.prefix = prefix;
+        this.generatedTime = generatedTime;
+        this.node = node;
+        this.exponent = exponent;
+        this.layout = layout;
+    }
+
+    static Id of(String prefix, long generatedTime, int node, int exponent) {
+        return of(prefix, generatedTime, node, exponent, IdLayout.DEFAULT);
+    }
+
+    static Id of(String prefix, long generatedTime, int node, int exponent, IdLayout layout) {
+        return new Id(String.valueOf(prefix), generatedTime, node, exponent, layout);
+    }
+
+    public String getId() {
+        String value = id;
+        if (null == value && null != prefix) {
+            value = IdFormatter.format(prefix, generatedTime, node, exponent, layout);
+            id = value;
+        }
+        return value;
+    }
+
+    public Date getGeneratedDate() {
+        Date value = generatedDate;
+        if (null == value && null != prefix) {
+            value = new Date(generatedTime);
+            generatedDate = value;
+        }
+        return value;
+    }
+
+    public int getNode() {
+        return node;
+    }
+
+    public int getExponent() {
+        return exponent;
+    }
+
+    /**
+     * Time at which the id was generated. Unlike {@link #getGeneratedDate()} this does not allocate.
+     *
+     * @return Epoch millis
+     */
+    public long generatedTimeMillis() {
+        return generatedTime;
+    }
+
+    /**
+     * Time, node and exponent packed into 64 bits. The value is unsigned, compare values with
+     * {@link Long#compareUnsigned(long, long)} to order them by time. The prefix is not part of the value.
+     *
+     * @return Packed id
+     * @throws IllegalStateException if the id was generated with a non default {@link IdLayout}, node or exponent
+     *                               do not fit the default layout, or the id was generated before 2020
+     */
+    public long asLong() {
+        Preconditions.checkState(null == layout || IdLayout.DEFAULT.equals(layout),
+                                 "Only ids with the default layout can be packed, this one has %s", layout);
+        return CompactIdCodec.encode(generatedTime, node, exponent);
+    }
+
+    /**
+     * {@link #asLong()} as a fixed width base 62 string of 11 characters. Strings sort in the order the ids were
+     * generated in. The prefix is not part of the string. Prepend it if needed,
+     * {@link IdGenerator#parseCompact(String)} accepts both forms.
+     *
+     * @return Compact id
+     * @throws IllegalStateException see {@link #asLong()}
+     */
+    public String asCompactString() {
+        return CompactIdCodec.toString(asLong());
+    }
+
+    public void setId(String id) {
+        materialize();
+        this.id = id;
+    }
+
+    public void setGeneratedDate(Date generatedDate) {
+        materialize();
+        this.generatedDate = generatedDate;
+        this.generatedTime = null == generatedDate ? 0 : generatedDate.getTime();
+    }
+
+    public void setNode(int node) {
+        materialize();
+        this.node = node;
+    }
+
+    public void setExponent(int exponent) {
+        materialize();
+        this.exponent = exponent;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Id)) {
+            return false;
+        }
+        final Id other = (Id) o;
+        if (node != other.node || exponent != other.exponent) {
+            return false;
+        }
+        if (null != prefix && null != other.prefix) {
+            return generatedTime == other.generatedTime
+                    && prefix.equals(other.prefix)
+                    && layout.equals(other.layout);
+        }
+        return Objects.equals(getId(), other.getId())
+                && Objects.equals(getGeneratedDate(), other.getGeneratedDate());
+    }
+
+    @Override
+    public int hashCode() {
+        final String idValue = getId();
+        final Date dateValue = getGeneratedDate();
+        int result = 1;
+        result = result * 59 + (null == idValue ? 43 : idValue.hashCode());
+        result = result * 59 + (null == dateValue ? 43 : dateValue.hashCode());
+        result = result * 59 + node;
+        result = result * 59 + exponent;
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "Id(id=" + getId()
+                + ", generatedDate=" + getGeneratedDate()
+                + ", node=" + node
+                + ", exponent=" + exponent + ")";
+    }
+
+    /**
+     * Builds the string and date so that later modifications do not depend on the lazily rendered values
+     */
+    private void materialize() {
+        if (null != prefix) {
+            getId();
+            getGeneratedDate();
+            prefix = null;
+        }
+    }
 }
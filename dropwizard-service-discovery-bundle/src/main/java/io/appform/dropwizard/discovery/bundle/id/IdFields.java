@@ -0,0 +1,41 @@
+/*
+ * Copyright (c) 2021 Santanu Sinha <santanu.sinha@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package io.appform.dropwizard.discovery.bundle.id;
+
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Fields decoded from an id string. A single instance can be reused across calls to
+ * {@link IdGenerator#parse(String, IdFields)} to parse ids without creating an {@link Id} for each.
+ */
+@Getter
+@ToString
+public class IdFields {
+    private int prefixLength;
+    private long generatedTime;
+    private int node;
+    private int exponent;
+
+    void set(int prefixLength, long generatedTime, int node, int exponent) {
+        this.prefixLength = prefixLength;
+        this.generatedTime = generatedTime;
+        this.node = node;
+        this.exponent = exponent;
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2021 Santanu Sinha <santanu.sinha@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package io.appform.dropwizard.discovery.bundle.id;
+
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+import org.joda.time.format.DateTimeFormat;
+import org.joda.time.format.DateTimeFormatter;
+
+/**
+ * Renders ids as prefix + yyMMddHHmmssSSS + node + exponent, with node and exponent as wide as the {@link IdLayout}
+ * asks for, into a reused per thread buffer. The date part is rendered once per second and cached, so the only
+ * allocation per id is the resulting string. Output is identical to the String.format based rendering it replaces.
+ */
+final class IdFormatter {
+    private static final DateTimeFormatter formatter = DateTimeFormat.forPattern("yyMMddHHmmssSSS");
+    private static final DateTimeFormatter secondsFormatter = DateTimeFormat.forPattern("yyMMddHHmmss");
+    private static final int SECONDS_LENGTH = 12;
+    private static final ThreadLocal<IdFormatter> formatters = ThreadLocal.withInitial(IdFormatter::new);
+
+    private final char[] seconds = new char[SECONDS_LENGTH];
+    private char[] buffer = new char[64];
+    private long cachedSecond = Long.MIN_VALUE;
+    private DateTimeZone cachedZone = null;
+
+    private IdFormatter() {
+    }
+
+    static String format(String prefix, long time, int node, int exponent) {
+        return format(prefix, time, node, exponent, IdLayout.DEFAULT);
+    }
+
+    static String format(String prefix, long time, int node, int exponent, IdLayout layout) {
+        if (node < 0 || node >= layout.getNodeCount() || exponent < 0 || exponent >= layout.getIdsPerMillisecond()) {
+            return String.format("%s%s%0" + layout.getNodeDigits() + "d%0" + layout.getExponentDigits() + "d",
+                                 prefix, formatter.print(new DateTime(time)), node, exponent);
+        }
+        return formatters.get().render(String.valueOf(prefix), time, node, exponent, layout);
+    }
+
+    private String render(String prefix, long time, int node, int exponent, IdLayout layout) {
+        final int prefixLength = prefix.length();
+        final int length = prefixLength + layout.getSuffixLength();
+        if (buffer.length < length) {
+            buffer = new char[Math.max(length, buffer.length * 2)];
+        }
+        prefix.getChars(0, prefixLength, buffer, 0);
+        final long second = Math.floorDiv(time, 1000L);
+        final DateTimeZone zone = DateTimeZone.getDefault();
+        if (second != cachedSecond || zone != cachedZone) {
+            secondsFormatter.withZone(zone)
+                    .print(second * 1000L)
+                    .getChars(0, SECONDS_LENGTH, seconds, 0);
+            cachedSecond = second;
+            cachedZone = zone;
+        }
+        System.arraycopy(seconds, 0, buffer, prefixLength, SECONDS_LENGTH);
+        int position = prefixLength + SECONDS_LENGTH;
+        position = writeDigits((int) Math.floorMod(time, 1000L), 3, position);
+        position = writeDigits(node, layout.getNodeDigits(), position);
+        position = writeDigits(exponent, layout.getExponentDigits(), position);
+        return new String(buffer, 0, position);
+    }
+
+    private int writeDigits(int value, int width, int position) {
+        for (int i = position + width - 1; i >= position; i--) {
+            buffer[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+        return position + width;
+    }
+}
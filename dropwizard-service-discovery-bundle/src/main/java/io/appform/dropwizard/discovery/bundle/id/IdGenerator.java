@@ -17,115 +17,141 @@
 
 package io.appform.dropwizard.discovery.bundle.id;
 
-import com.github.rholder.retry.RetryException;
-import com.github.rholder.retry.Retryer;
-import com.github.rholder.retry.RetryerBuilder;
-import com.github.rholder.retry.StopStrategies;
-import com.google.common.base.Preconditions;
-import com.google.common.collect.ImmutableList;
-import io.appform.dropwizard.discovery.bundle.Constants;
+import com.codahale.metrics.MetricRegistry;
 import io.appform.dropwizard.discovery.bundle.id.constraints.IdValidationConstraint;
-import lombok.Data;
-import lombok.extern.slf4j.Slf4j;
-import org.joda.time.DateTime;
-import org.joda.time.format.DateTimeFormat;
-import org.joda.time.format.DateTimeFormatter;
-
-import java.security.SecureRandom;
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.HashMap;
+
+import java.util.Date;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
 import java.util.Optional;
-import java.util.concurrent.ExecutionException;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 /**
- * Id generation
+ * Id generation. Static access to a shared {@link DefaultIdGenerator}; create separate instances for independent
+ * node ids or collision spaces.
  */
-@Slf4j
 public class IdGenerator {
 
-    private static final int MINIMUM_ID_LENGTH = 22;
-
-    private enum IdValidationState {
-        VALID,
-        INVALID_RETRYABLE,
-        INVALID_NON_RETRYABLE
-    }
-
-    private static final class IdInfo {
-        int exponent;
-        long time;
+    private static final DefaultIdGenerator DEFAULT = new DefaultIdGenerator(0);
 
-        public IdInfo(int exponent, long time) {
-            this.exponent = exponent;
-            this.time = time;
-        }
+    /**
+     * @return The generator behind the static methods
+     */
+    public static DefaultIdGenerator getDefault() {
+        return DEFAULT;
     }
 
-    private static final SecureRandom random = new SecureRandom(
-            Long.toBinaryString(System.currentTimeMillis())
-                    .getBytes()
-    );
-    private static int nodeId;
-    private static final DateTimeFormatter formatter = DateTimeFormat.forPattern("yyMMddHHmmssSSS");
-    private static final CollisionChecker collisionChecker = new CollisionChecker();
-    private static List<IdValidationConstraint> globalConstraints = Collections.emptyList();
-    private static Map<String, List<IdValidationConstraint>> domainSpecificConstraints = new HashMap<>();
-    private static final Retryer<GenerationResult> retrier = RetryerBuilder.<GenerationResult>newBuilder()
-            .withStopStrategy(StopStrategies.stopAfterAttempt(512))
-            .retryIfException()
-            .retryIfResult(Objects::isNull)
-            .retryIfResult(result -> result.getState().equals(IdValidationState.INVALID_RETRYABLE))
-            .build();
-    private static final String patternString = "(.*)([0-9]{15})([0-9]{4})([0-9]{3})";
-    private static final Pattern pattern = Pattern.compile(patternString);
-
     public static void initialize(int node) {
-        nodeId = node;
+        DEFAULT.initialize(node);
     }
 
     public static void cleanUp() {
-        globalConstraints.clear();
-        domainSpecificConstraints.clear();
+        DEFAULT.cleanUp();
     }
 
     public static void initialize(final int node,
                                   final List<IdValidationConstraint> globalConstraints,
                                   final Map<String, List<IdValidationConstraint>> domainSpecificConstraints) {
-        nodeId = node;
-        IdGenerator.globalConstraints = globalConstraints != null
-                ? globalConstraints
-                : Collections.emptyList();
-        IdGenerator.domainSpecificConstraints.putAll(domainSpecificConstraints);
+        DEFAULT.initialize(node, globalConstraints, domainSpecificConstraints);
     }
 
-    public static synchronized void registerGlobalConstraints(IdValidationConstraint... constraints) {
-        registerGlobalConstraints(ImmutableList.copyOf(constraints));
+    public static void initialize(final int node,
+                                  final List<IdValidationConstraint> globalConstraints,
+                                  final Map<String, List<IdValidationConstraint>> domainSpecificConstraints,
+                                  final IdGeneratorConfig config) {
+        DEFAULT.initialize(node, globalConstraints, domainSpecificConstraints, config);
     }
 
-    public static synchronized void registerGlobalConstraints(List<IdValidationConstraint> constraints) {
-        Preconditions.checkArgument(null != constraints && !constraints.isEmpty());
-        if(null == globalConstraints) {
-            globalConstraints = new ArrayList<>();
-        }
-        globalConstraints.addAll(constraints);
+    public static void initialize(int node, IdGeneratorConfig config) {
+        DEFAULT.initialize(node, config);
     }
 
-    public static synchronized void registerDomainSpecificConstraints(String domain, IdValidationConstraint... validationConstraints) {
-        registerDomainSpecificConstraints(domain, ImmutableList.copyOf(validationConstraints));
+    /**
+     * @return Number of times id generation found all exponents of the current millisecond used up
+     */
+    public static long getExhaustionCount() {
+        return DEFAULT.getExhaustionCount();
     }
 
-    public static synchronized void registerDomainSpecificConstraints(String domain, List<IdValidationConstraint> validationConstraints) {
-        Preconditions.checkArgument(null != validationConstraints && !validationConstraints.isEmpty());
-        if(!domainSpecificConstraints.containsKey(domain)) {
-            domainSpecificConstraints.put(domain, new ArrayList<>());
-        }
-        domainSpecificConstraints.get(domain).addAll(validationConstraints);
+    /**
+     * Publish metrics of the shared generator to a registry, named after this class
+     *
+     * @param registry Registry to publish to
+     */
+    public static void registerMetrics(MetricRegistry registry) {
+        DEFAULT.registerMetrics(registry, MetricRegistry.name(IdGenerator.class));
+    }
+
+    /**
+     * @param domain Domain for constraint selection, null for generation with explicitly passed constraints
+     * @return Attempts taken by constrained generation for the domain
+     */
+    public static AttemptHistogram getAttemptHistogram(String domain) {
+        return DEFAULT.getAttemptHistogram(domain);
+    }
+
+    /**
+     * Override the number of candidates tried by constrained generation for a domain
+     *
+     * @param domain      Domain for constraint selection
+     * @param maxAttempts Maximum number of candidates to try for each id
+     */
+    public static void registerDomainMaxAttempts(String domain, int maxAttempts) {
+        DEFAULT.registerDomainMaxAttempts(domain, maxAttempts);
+    }
+
+    public static void registerGlobalConstraints(IdValidationConstraint... constraints) {
+        DEFAULT.registerGlobalConstraints(constraints);
+    }
+
+    public static void registerGlobalConstraints(List<IdValidationConstraint> constraints) {
+        DEFAULT.registerGlobalConstraints(constraints);
+    }
+
+    public static void registerDomainSpecificConstraints(String domain, IdValidationConstraint... validationConstraints) {
+        DEFAULT.registerDomainSpecificConstraints(domain, validationConstraints);
+    }
+
+    public static void registerDomainSpecificConstraints(String domain, List<IdValidationConstraint> validationConstraints) {
+        DEFAULT.registerDomainSpecificConstraints(domain, validationConstraints);
+    }
+
+    /**
+     * @return Compiled global constraints along with the number of ids each one rejected
+     */
+    public static ConstraintChain getGlobalConstraintChain() {
+        return DEFAULT.getGlobalConstraintChain();
+    }
+
+    /**
+     * @param domain Domain for constraint selection
+     * @return Compiled constraints of the domain along with the number of ids each one rejected
+     */
+    public static ConstraintChain getConstraintChain(String domain) {
+        return DEFAULT.getConstraintChain(domain);
+    }
+
+    /**
+     * Keep a pool of pre-generated ids for the prefix. {@link #generate(String)} hands out ids from the pool and
+     * generates directly only when the pool runs dry.
+     *
+     * @param prefix String prefix
+     * @param config Pool sizing
+     */
+    public static void registerPool(String prefix, IdPoolConfig config) {
+        DEFAULT.registerPool(prefix, config);
+    }
+
+    /**
+     * Keep a pool of pre-generated ids matching the constraints of the domain.
+     * {@link #generateWithConstraints(String, String)} hands out ids from the pool and generates directly only when
+     * the pool runs dry.
+     *
+     * @param prefix String prefix
+     * @param domain Domain for constraint selection
+     * @param config Pool sizing
+     */
+    public static void registerPool(String prefix, String domain, IdPoolConfig config) {
+        DEFAULT.registerPool(prefix, domain, config);
     }
 
     /**
@@ -135,15 +161,7 @@ public class IdGenerator {
      * @return Generated Id
      */
     public static Id generate(String prefix) {
-        final IdInfo idInfo = random();
-        DateTime dateTime = new DateTime(idInfo.time);
-        final String id = String.format("%s%s%04d%03d", prefix, formatter.print(dateTime), nodeId, idInfo.exponent);
-        return Id.builder()
-                .id(id)
-                .exponent(idInfo.exponent)
-                .generatedDate(dateTime.toDate())
-                .node(nodeId)
-                .build();
+        return DEFAULT.generate(prefix);
     }
 
     /**
@@ -156,7 +174,7 @@ public class IdGenerator {
      * @return
      */
     public static Optional<Id> generateWithConstraints(String prefix, String domain) {
-        return generateWithConstraints(prefix, domainSpecificConstraints.getOrDefault(domain, Collections.emptyList()), true);
+        return DEFAULT.generateWithConstraints(prefix, domain);
     }
 
     /**
@@ -170,7 +188,7 @@ public class IdGenerator {
      * @return Id if it could be generated
      */
     public static Optional<Id> generateWithConstraints(String prefix, String domain, boolean skipGlobal) {
-        return generateWithConstraints(prefix, domainSpecificConstraints.getOrDefault(domain, Collections.emptyList()), skipGlobal);
+        return DEFAULT.generateWithConstraints(prefix, domain, skipGlobal);
     }
 
     /**
@@ -183,42 +201,113 @@ public class IdGenerator {
      * @return Id if it could be generated
      */
     public static Optional<Id> generateWithConstraints(String prefix, final List<IdValidationConstraint> inConstraints) {
-        return generateWithConstraints(prefix, inConstraints, false);
+        return DEFAULT.generateWithConstraints(prefix, inConstraints);
     }
 
     /**
-     * Generate id by parsing given string
+     * Generate id by parsing given string, using the layout the generator is configured with. Ids generated with
+     * {@link IdLayout#DEFAULT}, e.g. before a wider layout was configured, are still parsed. A string that fits both
+     * layouts is ambiguous and is read with the configured layout; use {@link #parse(String, IdLayout)} to pick one.
      *
      * @param idString String idString
      * @return Id if it could be generated
      */
     public static Optional<Id> parse(final String idString) {
-        if (idString == null
-                || idString.length() < MINIMUM_ID_LENGTH) {
+        return DEFAULT.parse(idString);
+    }
+
+    /**
+     * Generate id by parsing given string that was generated with a non default layout
+     *
+     * @param idString String idString
+     * @param layout   Layout the id was generated with
+     * @return Id if it could be generated
+     */
+    public static Optional<Id> parse(final String idString, final IdLayout layout) {
+        final IdFields fields = new IdFields();
+        if (!parse(idString, layout, fields)) {
             return Optional.empty();
         }
-        try {
-            Matcher matcher = pattern.matcher(idString);
-            if (matcher.find()) {
-                return Optional.of(Id.builder()
-                        .id(idString)
-                        .node(Integer.parseInt(matcher.group(3)))
-                        .exponent(Integer.parseInt(matcher.group(4)))
-                        .generatedDate(formatter.parseDateTime(matcher.group(2)).toDate())
-                        .build());
-            }
-            return Optional.empty();
-        } catch (Exception e) {
-            log.warn("Could not parse idString {}", e.getMessage());
+        return Optional.of(Id.builder()
+                .id(idString)
+                .node(fields.getNode())
+                .exponent(fields.getExponent())
+                .generatedDate(new Date(fields.getGeneratedTime()))
+                .build());
+    }
+
+    /**
+     * Parse given string into a reusable holder without creating an {@link Id}, using the layout the generator is
+     * configured with and falling back to {@link IdLayout#DEFAULT}. A string that fits both layouts is read with the
+     * configured layout.
+     *
+     * @param idString String idString
+     * @param target Holder that receives the parsed fields. Left untouched if parsing fails.
+     * @return true if the string could be parsed
+     */
+    public static boolean parse(final String idString, final IdFields target) {
+        final IdLayout layout = DEFAULT.getLayout();
+        return IdParser.parse(idString, layout, target)
+                || (!IdLayout.DEFAULT.equals(layout) && IdParser.parse(idString, IdLayout.DEFAULT, target));
+    }
+
+    /**
+     * Parse given string generated with a non default layout into a reusable holder
+     *
+     * @param idString String idString
+     * @param layout   Layout the id was generated with
+     * @param target   Holder that receives the parsed fields. Left untouched if parsing fails.
+     * @return true if the string could be parsed
+     */
+    public static boolean parse(final String idString, final IdLayout layout, final IdFields target) {
+        return IdParser.parse(idString, layout, target);
+    }
+
+    /**
+     * Generate id by parsing the output of {@link Id#asCompactString()}, optionally preceded by a prefix
+     *
+     * @param compactId String compactId
+     * @return Id if it could be generated
+     */
+    public static Optional<Id> parseCompact(final String compactId) {
+        final IdFields fields = new IdFields();
+        if (!parseCompact(compactId, fields)) {
             return Optional.empty();
         }
+        return Optional.of(Id.of(compactId.substring(0, fields.getPrefixLength()),
+                                 fields.getGeneratedTime(),
+                                 fields.getNode(),
+                                 fields.getExponent()));
     }
 
-    @Data
-    private static class GenerationResult {
-        private final Id id;
-        private final IdValidationState state;
+    /**
+     * Parse the output of {@link Id#asCompactString()}, optionally preceded by a prefix, into a reusable holder
+     *
+     * @param compactId String compactId
+     * @param target    Holder that receives the parsed fields. Left untouched if parsing fails.
+     * @return true if the string could be parsed
+     */
+    public static boolean parseCompact(final String compactId, final IdFields target) {
+        return CompactIdCodec.parse(compactId, target);
     }
+
+    /**
+     * Generate id from the output of {@link Id#asLong()}
+     *
+     * @param prefix String prefix of the id
+     * @param value  Packed id
+     * @return Id if the value is a valid packed id
+     */
+    public static Optional<Id> fromLong(final String prefix, final long value) {
+        if (!CompactIdCodec.isValid(value)) {
+            return Optional.empty();
+        }
+        return Optional.of(Id.of(prefix,
+                                 CompactIdCodec.time(value),
+                                 CompactIdCodec.node(value),
+                                 CompactIdCodec.exponent(value)));
+    }
+
     /**
      * Generate id that mathces all passed constraints.
      * NOTE: There are performance implications for this.
@@ -230,59 +319,50 @@ public class IdGenerator {
      * @return Id if it could be generated
      */
     public static Optional<Id> generateWithConstraints(String prefix, final List<IdValidationConstraint> inConstraints, boolean skipGlobal) {
-        try {
-            final GenerationResult generationResult = retrier.call(() -> {
-                Id id = generate(prefix);
-                return new GenerationResult(id, validateId(inConstraints, id, skipGlobal));
-            });
-            return Optional.ofNullable(generationResult.getId());
-        }
-        catch (ExecutionException e) {
-            log.error("Error occurred while generating id with prefix " + prefix, e);
-        }
-        catch (RetryException e) {
-            log.error("Failed to generate id with prefix " + prefix + " after max attempts (512)", e);
-        }
-        return Optional.empty();
-    }
-
-    private static synchronized IdInfo random() {
-        int randomGen;
-        long time;
-        do {
-            time = System.currentTimeMillis();
-            randomGen = random.nextInt(Constants.MAX_ID_PER_MS);
-        } while (!collisionChecker.check(time, randomGen));
-        return new IdInfo(randomGen, time);
-    }
-
-    private static IdValidationState validateId(List<IdValidationConstraint> inConstraints, Id id, boolean skipGlobal) {
-        //First evaluate global constraints
-        final IdValidationConstraint failedGlobalConstraint
-                = skipGlobal || null == globalConstraints
-                ? null
-                : globalConstraints.stream()
-                        .filter(constraint -> !constraint.isValid(id))
-                        .findFirst()
-                        .orElse(null);
-        if(null != failedGlobalConstraint) {
-            return failedGlobalConstraint.failFast()
-                    ? IdValidationState.INVALID_NON_RETRYABLE
-                    : IdValidationState.INVALID_RETRYABLE;
-        }
-        //Evaluate local + domain constraints
-        final IdValidationConstraint failedLocalConstraint
-                = null == inConstraints
-                ? null
-                : inConstraints.stream()
-                .filter(constraint -> !constraint.isValid(id))
-                .findFirst()
-                .orElse(null);
-        if(null != failedLocalConstraint) {
-            return failedLocalConstraint.failFast()
-                    ? IdValidationState.INVALID_NON_RETRYABLE
-                    : IdValidationState.INVALID_RETRYABLE;
-        }
-        return IdValidationState.VALID;
+        return DEFAULT.generateWithConstraints(prefix, inConstraints, skipGlobal);
+    }
+
+    /**
+     * Generate multiple ids with given prefix.
+     * Exponents are reserved a millisecond at a time, so this is cheaper than calling {@link #generate(String)}
+     * in a loop.
+     *
+     * @param prefix String prefix with will be used to blindly merge
+     * @param count  Number of ids needed
+     * @return Generated ids
+     */
+    public static Id[] generateBatch(String prefix, int count) {
+        return DEFAULT.generateBatch(prefix, count);
+    }
+
+    /**
+     * Generate multiple ids that match all constraints registered for the domain.
+     *
+     * @param prefix String prefix
+     * @param domain Domain for constraint selection
+     * @param count  Number of ids needed
+     * @return Generated ids. Can be fewer than count, see
+     * {@link #generateBatchWithConstraints(String, List, boolean, int)}.
+     */
+    public static Id[] generateBatchWithConstraints(String prefix, String domain, int count) {
+        return DEFAULT.generateBatchWithConstraints(prefix, domain, count);
+    }
+
+    /**
+     * Generate multiple ids that match all passed constraints.
+     * Candidates are drawn a block of exponents at a time. Every requested id gets the same number of attempts as
+     * {@link #generateWithConstraints(String, List, boolean)}.
+     *
+     * @param prefix        String prefix
+     * @param inConstraints Constraints that need to be validate.
+     * @param skipGlobal    Skip global constrains and use only passed ones
+     * @param count         Number of ids needed
+     * @return Generated ids. Fewer than count if a fail fast constraint rejected a candidate or attempts ran out.
+     */
+    public static Id[] generateBatchWithConstraints(String prefix,
+                                                    final List<IdValidationConstraint> inConstraints,
+                                                    boolean skipGlobal,
+                                                    int count) {
+        return DEFAULT.generateBatchWithConstraints(prefix, inConstraints, skipGlobal, count);
     }
 }
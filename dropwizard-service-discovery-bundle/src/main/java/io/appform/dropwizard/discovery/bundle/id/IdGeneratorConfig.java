@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2021 Santanu Sinha <santanu.sinha@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package io.appform.dropwizard.discovery.bundle.id;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Tuning parameters for {@link IdGenerator}
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class IdGeneratorConfig {
+    @Builder.Default
+    private AllocationMode allocationMode = AllocationMode.RANDOM;
+
+    @Builder.Default
+    private ExhaustionPolicy exhaustionPolicy = ExhaustionPolicy.SPIN;
+
+    /**
+     * Random source for exponents, unused with {@link AllocationMode#LOCK_FREE} and {@link AllocationMode#MONOTONIC}
+     */
+    @Builder.Default
+    private EntropySource entropySource = EntropySource.SECURE_RANDOM;
+
+    /**
+     * Maximum number of milliseconds ids may run ahead of the clock with {@link ExhaustionPolicy#BORROW}
+     */
+    @Builder.Default
+    private long maxBorrowMillis = 10;
+
+    /**
+     * What to do when the system clock moves backwards
+     */
+    @Builder.Default
+    private ClockRegressionPolicy clockRegressionPolicy = ClockRegressionPolicy.BORROW;
+
+    /**
+     * Largest backwards step of the clock to wait out with {@link ClockRegressionPolicy#WAIT}
+     */
+    @Builder.Default
+    private long maxClockWaitMillis = 1000;
+
+    /**
+     * Number of candidates tried by constrained generation for each id, unless overridden for a domain
+     */
+    @Builder.Default
+    private int maxAttempts = 512;
+
+    /**
+     * Width of the node part of generated ids, see {@link IdLayout}
+     */
+    @Builder.Default
+    private int nodeDigits = IdLayout.DEFAULT.getNodeDigits();
+
+    /**
+     * Width of the exponent part of generated ids, see {@link IdLayout}. Every extra digit allows ten times as
+     * many ids per millisecond.
+     */
+    @Builder.Default
+    private int exponentDigits = IdLayout.DEFAULT.getExponentDigits();
+
+    /**
+     * @return Layout of ids generated with this config
+     */
+    public IdLayout layout() {
+        return IdLayout.of(nodeDigits, exponentDigits);
+    }
+}
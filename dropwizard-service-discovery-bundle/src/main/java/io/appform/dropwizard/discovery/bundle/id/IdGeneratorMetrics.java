@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2021 Santanu Sinha <santanu.sinha@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package io.appform.dropwizard.discovery.bundle.id;
+
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.Metric;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publishes the meters of a {@link DefaultIdGenerator} to a {@link MetricRegistry}.
+ * The generator marks the meters as it goes, so their counts cover its whole lifetime.
+ * Constrained generation also updates a histogram of attempts and a timer of the domain.
+ */
+class IdGeneratorMetrics implements GenerationObserver {
+    private static final String AD_HOC = "adhoc";
+
+    private static final class DomainMetrics {
+        private final Histogram attempts;
+        private final Timer latency;
+
+        private DomainMetrics(Histogram attempts, Timer latency) {
+            this.attempts = attempts;
+            this.latency = latency;
+        }
+    }
+
+    private final MetricRegistry registry;
+    private final String name;
+    private final Map<String, DomainMetrics> domains = new ConcurrentHashMap<>();
+
+    IdGeneratorMetrics(MetricRegistry registry,
+                       String name,
+                       Meter generated,
+                       Meter collisions,
+                       Meter exhaustions,
+                       Meter failFast,
+                       Meter attemptLimit,
+                       Meter clockWaits,
+                       Meter clockBorrows,
+                       Meter clockFailures) {
+        this.registry = registry;
+        this.name = name;
+        replace("generated", generated);
+        replace("collisions", collisions);
+        replace("exhaustions", exhaustions);
+        replace(MetricRegistry.name("constrained", "failFast"), failFast);
+        replace(MetricRegistry.name("constrained", "attemptLimit"), attemptLimit);
+        replace(MetricRegistry.name("clockRegression", "waited"), clockWaits);
+        replace(MetricRegistry.name("clockRegression", "borrowed"), clockBorrows);
+        replace(MetricRegistry.name("clockRegression", "failed"), clockFailures);
+    }
+
+    @Override
+    public void constrainedGeneration(String domain, int attempts, long elapsedNanos) {
+        final DomainMetrics metrics = domains.computeIfAbsent(
+                null == domain ? AD_HOC : domain,
+                key -> new DomainMetrics(
+                        registry.histogram(MetricRegistry.name(name, "constrained", key, "attempts")),
+                        registry.timer(MetricRegistry.name(name, "constrained", key, "time"))));
+        metrics.attempts.update(attempts);
+        metrics.latency.update(elapsedNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private void replace(String metric, Metric value) {
+        final String metricName = MetricRegistry.name(name, metric);
+        registry.remove(metricName);
+        registry.register(metricName, value);
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2021 Santanu Sinha <santanu.sinha@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package io.appform.dropwizard.discovery.bundle.id;
+
+import com.google.common.base.Preconditions;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Digit widths of the node and exponent parts of an id. Ids are rendered as prefix + yyMMddHHmmssSSS + node +
+ * exponent. The {@link #DEFAULT} layout produces the classic 22 digit suffix with 10000 nodes and 1000 ids per
+ * millisecond for each node. Wider layouts raise these limits at the cost of longer ids. Ids can only be parsed
+ * back using the layout they were generated with.
+ */
+@Getter
+@EqualsAndHashCode
+@ToString
+public final class IdLayout {
+    public static final int MIN_NODE_DIGITS = 4;
+    public static final int MAX_NODE_DIGITS = 6;
+    public static final int MIN_EXPONENT_DIGITS = 3;
+    public static final int MAX_EXPONENT_DIGITS = 6;
+
+    static final int TIME_DIGITS = 15;
+
+    public static final IdLayout DEFAULT = new IdLayout(MIN_NODE_DIGITS, MIN_EXPONENT_DIGITS);
+
+    private final int nodeDigits;
+    private final int exponentDigits;
+
+    private IdLayout(int nodeDigits, int exponentDigits) {
+        this.nodeDigits = nodeDigits;
+        this.exponentDigits = exponentDigits;
+    }
+
+    /**
+     * @param nodeDigits     Width of the node part, between {@value #MIN_NODE_DIGITS} and {@value #MAX_NODE_DIGITS}
+     * @param exponentDigits Width of the exponent part, between {@value #MIN_EXPONENT_DIGITS} and
+     *                       {@value #MAX_EXPONENT_DIGITS}
+     * @return Layout with the given widths
+     */
+    public static IdLayout of(int nodeDigits, int exponentDigits) {
+        Preconditions.checkArgument(nodeDigits >= MIN_NODE_DIGITS && nodeDigits <= MAX_NODE_DIGITS,
+                                    "Provide nodeDigits between %s and %s", MIN_NODE_DIGITS, MAX_NODE_DIGITS);
+        Preconditions.checkArgument(exponentDigits >= MIN_EXPONENT_DIGITS && exponentDigits <= MAX_EXPONENT_DIGITS,
+                                    "Provide exponentDigits between %s and %s",
+                                    MIN_EXPONENT_DIGITS, MAX_EXPONENT_DIGITS);
+        return nodeDigits == DEFAULT.nodeDigits && exponentDigits == DEFAULT.exponentDigits
+               ? DEFAULT
+               : new IdLayout(nodeDigits, exponentDigits);
+    }
+
+    /**
+     * @return Number of distinct node ids that fit the node part
+     */
+    public int getNodeCount() {
+        return pow10(nodeDigits);
+    }
+
+    /**
+     * @return Number of ids a node can generate in a millisecond
+     */
+    public int getIdsPerMillisecond() {
+        return pow10(exponentDigits);
+    }
+
+    /**
+     * @return Number of digits following the prefix
+     */
+    public int getSuffixLength() {
+        return TIME_DIGITS + nodeDigits + exponentDigits;
+    }
+
+    private static int pow10(int digits) {
+        int value = 1;
+        for (int i = 0; i < digits; i++) {
+            value *= 10;
+        }
+        return value;
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2021 Santanu Sinha <santanu.sinha@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package io.appform.dropwizard.discovery.bundle.id;
+
+import org.joda.time.Chronology;
+import org.joda.time.DateTime;
+import org.joda.time.chrono.ISOChronology;
+
+/**
+ * Decodes the digit suffix (yyMMddHHmmssSSS + node + exponent) of an id in place. The widths of node and exponent
+ * come from the {@link IdLayout} the id was generated with, 22 digits in all for the default layout.
+ * Two digit years are resolved the same way as a joda "yy" pattern does.
+ */
+final class IdParser {
+    //Joda resolves "yy" to the hundred years starting at (current year - 80)
+    private static final int TWO_DIGIT_YEAR_LOW = new DateTime().getYear() - 30 - 50;
+    private static final int TWO_DIGIT_YEAR_START = Math.floorMod(TWO_DIGIT_YEAR_LOW, 100);
+
+    private IdParser() {
+    }
+
+    static boolean parse(final String idString, final IdFields target) {
+        return parse(idString, IdLayout.DEFAULT, target);
+    }
+
+    static boolean parse(final String idString, final IdLayout layout, final IdFields target) {
+        final int suffixLength = layout.getSuffixLength();
+        if (null == idString || idString.length() < suffixLength) {
+            return false;
+        }
+        final int start = idString.length() - suffixLength;
+        for (int i = start; i < idString.length(); i++) {
+            final char ch = idString.charAt(i);
+            if (ch < '0' || ch > '9') {
+                return false;
+            }
+        }
+        final int twoDigitYear = digits(idString, start, 2);
+        final int year = TWO_DIGIT_YEAR_LOW
+                + twoDigitYear
+                - TWO_DIGIT_YEAR_START
+                + (twoDigitYear < TWO_DIGIT_YEAR_START ? 100 : 0);
+        final long time;
+        try {
+            final Chronology chronology = ISOChronology.getInstance();
+            time = chronology.getDateTimeMillis(year,
+                                                digits(idString, start + 2, 2),
+                                                digits(idString, start + 4, 2),
+                                                digits(idString, start + 6, 2),
+                                                digits(idString, start + 8, 2),
+                                                digits(idString, start + 10, 2),
+                                                digits(idString, start + 12, 3));
+        }
+        catch (IllegalArgumentException e) {
+            //Invalid field values or a local time that does not exist in the default zone
+            return false;
+        }
+        final int nodeStart = start + IdLayout.TIME_DIGITS;
+        final int exponentStart = nodeStart + layout.getNodeDigits();
+        target.set(start,
+                   time,
+                   digits(idString, nodeStart, layout.getNodeDigits()),
+                   digits(idString, exponentStart, layout.getExponentDigits()));
+        return true;
+    }
+
+    private static int digits(String idString, int from, int count) {
+        int value = 0;
+        for (int i = from; i < from + count; i++) {
+            value = value * 10 + (idString.charAt(i) - '0');
+        }
+        return value;
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright (c) 2021 Santanu Sinha <santanu.sinha@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package io.appform.dropwizard.discovery.bundle.id;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Optional;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+
+/**
+ * Bounded pool of pre-generated ids that is refilled in the background.
+ * Ids are kept in a lock free queue in generation order, so the oldest id is always at the head. Ids older than
+ * the configured staleness are dropped, both when handing out and during refills.
+ * Clearing swaps in a fresh queue. A refill that was already running fills the queue it started with, so ids it
+ * generated before the clear never get handed out.
+ */
+@Slf4j
+class IdPool {
+    private final IntFunction<Id[]> generator;
+    private final IdPoolConfig config;
+    private final ScheduledExecutorService executorService;
+    private volatile Buffer buffer = new Buffer();
+    private final AtomicBoolean refillPending = new AtomicBoolean();
+    private final ScheduledFuture<?> refillTask;
+
+    IdPool(IntFunction<Id[]> generator, IdPoolConfig config, ScheduledExecutorService executorService) {
+        this.generator = generator;
+        this.config = config;
+        this.executorService = executorService;
+        this.refillTask = executorService.scheduleWithFixedDelay(this::refill,
+                                                                 0,
+                                                                 config.getRefillIntervalMillis(),
+                                                                 TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * @return A fresh id from the pool, empty if the pool has run dry
+     */
+    Optional<Id> poll() {
+        final long oldestAllowed = System.currentTimeMillis() - config.getMaxStalenessMillis();
+        final Buffer current = buffer;
+        Id id;
+        while (null != (id = current.ids.poll())) {
+            if (current.size.decrementAndGet() < config.getLowWatermark()) {
+                requestRefill();
+            }
+            if (id.generatedTimeMillis() >= oldestAllowed) {
+                return Optional.of(id);
+            }
+        }
+        requestRefill();
+        return Optional.empty();
+    }
+
+    int size() {
+        return buffer.size.get();
+    }
+
+    /**
+     * Drop all pooled ids and refill with freshly generated ones
+     */
+    void clear() {
+        buffer = new Buffer();
+        requestRefill();
+    }
+
+    void stop() {
+        refillTask.cancel(false);
+        buffer = new Buffer();
+    }
+
+    private void requestRefill() {
+        if (refillPending.compareAndSet(false, true)) {
+            try {
+                executorService.execute(this::refill);
+            }
+            catch (Exception e) {
+                refillPending.set(false);
+                log.debug("Could not schedule id pool refill: {}", e.getMessage());
+            }
+        }
+    }
+
+    private void refill() {
+        refillPending.set(false);
+        final Buffer current = buffer;
+        try {
+            purgeStale(current);
+            final int needed = config.getCapacity() - current.size.get();
+            if (needed <= 0) {
+                return;
+            }
+            for (Id id : generator.apply(needed)) {
+                current.ids.offer(id);
+                current.size.incrementAndGet();
+            }
+        }
+        catch (Exception e) {
+            log.error("Error refilling id pool", e);
+        }
+    }
+
+    private void purgeStale(Buffer current) {
+        final long oldestAllowed = System.currentTimeMillis() - config.getMaxStalenessMillis();
+        Id head;
+        while (null != (head = current.ids.peek()) && head.generatedTimeMillis() < oldestAllowed) {
+            if (current.ids.remove(head)) {
+                current.size.decrementAndGet();
+            }
+        }
+    }
+
+    private static final class Buffer {
+        private final ConcurrentLinkedQueue<Id> ids = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger size = new AtomicInteger();
+    }
+}
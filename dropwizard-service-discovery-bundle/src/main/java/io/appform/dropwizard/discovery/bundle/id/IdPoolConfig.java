@@ -0,0 +1,56 @@
+/*
+ * Copyright (c) 2021 Santanu Sinha <santanu.sinha@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package io.appform.dropwizard.discovery.bundle.id;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Sizing for a pool of pre-generated ids
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class IdPoolConfig {
+    /**
+     * Maximum number of ids kept ready
+     */
+    @Builder.Default
+    private int capacity = 1024;
+
+    /**
+     * A refill is triggered as soon as the number of ready ids drops below this
+     */
+    @Builder.Default
+    private int lowWatermark = 256;
+
+    /**
+     * Ids older than this are discarded instead of being handed out
+     */
+    @Builder.Default
+    private long maxStalenessMillis = 1000;
+
+    /**
+     * Interval at which the pool is topped up and stale ids are purged even without hitting the low watermark
+     */
+    @Builder.Default
+    private long refillIntervalMillis = 100;
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) 2021 Santanu Sinha <santanu.sinha@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package io.appform.dropwizard.discovery.bundle.id;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Hands out exponents without taking a lock.
+ * The current millisecond and the number of exponents already issued in it are packed into a single
+ * {@link AtomicLong} and advanced using CAS. The sequence is scattered over the exponent space using a
+ * bijection so that consecutive ids do not expose the counter.
+ * Time is read from a {@link MonotonicClock}. Ids are never issued against a millisecond earlier than the last one,
+ * irrespective of the clock.
+ */
+class LockFreeExponentAllocator implements ExponentAllocator {
+    //Wide enough for the largest exponent space allowed by IdLayout
+    private static final int COUNTER_BITS = 20;
+    private static final long COUNTER_MASK = (1L << COUNTER_BITS) - 1;
+    //Co-prime with every power of ten, so that exponent() is a bijection for a given millisecond
+    private static final int SCATTER_MULTIPLIER = 677;
+    //Not a valid packed state, as time is never negative
+    private static final long RETIRED = -1L;
+
+    private final AtomicLong state;
+    private final IdLayout layout;
+    private final int capacity;
+    private final MonotonicClock clock;
+    private final ExhaustionHandler exhaustionHandler;
+
+    LockFreeExponentAllocator(IdLayout layout,
+                              MonotonicClock clock,
+                              ExhaustionHandler exhaustionHandler,
+                              long startTime) {
+        this.state = new AtomicLong(startTime << COUNTER_BITS);
+        this.layout = layout;
+        this.clock = clock;
+        this.capacity = layout.getIdsPerMillisecond();
+        this.exhaustionHandler = exhaustionHandler;
+    }
+
+    @Override
+    public IdInfo allocate() {
+        while (true) {
+            final long current = state.get();
+            if (current == RETIRED) {
+                return null;
+            }
+            final long lastTime = current >>> COUNTER_BITS;
+            final int issued = (int) (current & COUNTER_MASK);
+            long now = clock.now();
+            if (now <= lastTime && issued >= capacity) {
+                now = exhaustionHandler.onExhausted(lastTime);
+            }
+            if (now > lastTime) {
+                if (state.compareAndSet(current, (now << COUNTER_BITS) | 1)) {
+                    return new IdInfo(exponent(now, 0), now);
+                }
+            }
+            else if (state.compareAndSet(current, current + 1)) {
+                return new IdInfo(exponent(lastTime, issued), lastTime);
+            }
+        }
+    }
+
+    @Override
+    public ExponentBlock allocateBlock(int maxCount) {
+        while (true) {
+            final long current = state.get();
+            if (current == RETIRED) {
+                return null;
+            }
+            final long lastTime = current >>> COUNTER_BITS;
+            final int issued = (int) (current & COUNTER_MASK);
+            long now = clock.now();
+            if (now <= lastTime && issued >= capacity) {
+                now = exhaustionHandler.onExhausted(lastTime);
+            }
+            if (now > lastTime) {
+                final int count = Math.min(maxCount, capacity);
+                if (state.compareAndSet(current, (now << COUNTER_BITS) | count)) {
+                    return block(now, 0, count);
+                }
+            }
+            else {
+                final int count = Math.min(maxCount, capacity - issued);
+                if (state.compareAndSet(current, current + count)) {
+                    return block(lastTime, issued, count);
+                }
+            }
+        }
+    }
+
+    @Override
+    public long retire() {
+        return state.getAndSet(RETIRED) >>> COUNTER_BITS;
+    }
+
+    @Override
+    public IdLayout layout() {
+        return layout;
+    }
+
+    private ExponentBlock block(long time, int firstSequence, int count) {
+        final int[] exponents = new int[count];
+        for (int i = 0; i < count; i++) {
+            exponents[i] = exponent(time, firstSequence + i);
+        }
+        return new ExponentBlock(time, exponents, layout);
+    }
+
+    /**
+     * Map the sequence number of an id within its millisecond to an exponent. Must be a bijection over the exponent
+     * space for a given millisecond.
+     */
+    int exponent(long time, int sequence) {
+        return (int) (((long) sequence * SCATTER_MULTIPLIER + time) % capacity);
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2021 Santanu Sinha <santanu.sinha@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package io.appform.dropwizard.discovery.bundle.id;
+
+import com.codahale.metrics.Meter;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongSupplier;
+
+/**
+ * Time source for allocators that never goes backwards. Tracks the latest millisecond read from the wall clock
+ * and applies the configured {@link ClockRegressionPolicy} whenever the wall clock reads earlier than that.
+ * A regression is counted once, when the clock first falls behind a millisecond, not on every read until it
+ * catches up.
+ */
+class MonotonicClock {
+    private final LongSupplier wallClock;
+    private final ClockRegressionPolicy policy;
+    private final long maxWaitMillis;
+    private final AtomicLong latest = new AtomicLong(Long.MIN_VALUE);
+    private final AtomicLong lastRegression = new AtomicLong(Long.MIN_VALUE);
+    private final Meter waitCount;
+    private final Meter borrowCount;
+    private final Meter failCount;
+
+    MonotonicClock(ClockRegressionPolicy policy,
+                   long maxWaitMillis,
+                   Meter waitCount,
+                   Meter borrowCount,
+                   Meter failCount) {
+        this(System::currentTimeMillis, policy, maxWaitMillis, waitCount, borrowCount, failCount);
+    }
+
+    MonotonicClock(LongSupplier wallClock,
+                   ClockRegressionPolicy policy,
+                   long maxWaitMillis,
+                   Meter waitCount,
+                   Meter borrowCount,
+                   Meter failCount) {
+        this.wallClock = wallClock;
+        this.policy = policy;
+        this.maxWaitMillis = maxWaitMillis;
+        this.waitCount = waitCount;
+        this.borrowCount = borrowCount;
+        this.failCount = failCount;
+    }
+
+    /**
+     * @return Current millisecond, never earlier than one returned before
+     * @throws IllegalStateException if the clock moved backwards and the policy does not allow going on
+     */
+    long now() {
+        final long now = wallClock.getAsLong();
+        long seen = latest.get();
+        while (now > seen) {
+            if (latest.compareAndSet(seen, now)) {
+                return now;
+            }
+            seen = latest.get();
+        }
+        return now == seen ? now : onRegression(now, seen);
+    }
+
+    private long onRegression(long now, long seen) {
+        switch (policy) {
+            case WAIT:
+                if (seen - now <= maxWaitMillis) {
+                    count(waitCount, seen);
+                    return awaitCatchUp(now, seen);
+                }
+                break;
+            case BORROW:
+                count(borrowCount, seen);
+                return seen;
+            case FAIL:
+            default:
+                break;
+        }
+        count(failCount, seen);
+        throw new IllegalStateException("Clock moved backwards by " + (seen - now) + " ms");
+    }
+
+    private void count(Meter meter, long seen) {
+        if (lastRegression.get() != seen && lastRegression.getAndSet(seen) != seen) {
+            meter.mark();
+        }
+    }
+
+    private long awaitCatchUp(long now, long seen) {
+        long current = now;
+        while (current < seen) {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(seen - current));
+            current = wallClock.getAsLong();
+        }
+        return now();
+    }
+}
@@ -43,6 +43,7 @@ public class NodeIdManager {
     private final CuratorPathUtils pathUtils;
 
     private final int zoneId;
+    private final int nodesPerZone;
 
     @Getter
     private int node;
@@ -50,7 +51,19 @@ public class NodeIdManager {
     public NodeIdManager(final CuratorFramework curatorFramework,
                          final String processName,
                          final int zoneId) {
+        this(curatorFramework, processName, zoneId, IdLayout.DEFAULT);
+    }
+
+    /**
+     * @param layout Layout of generated ids. Node ids are picked from this zone's share of the node space of the
+     *               layout, {@link Constants#MAX_NODES_PER_ZONE} for the default layout.
+     */
+    public NodeIdManager(final CuratorFramework curatorFramework,
+                         final String processName,
+                         final int zoneId,
+                         final IdLayout layout) {
         this.zoneId = zoneId;
+        this.nodesPerZone = layout.getNodeCount() / Constants.MAX_ZONES;
         this.curatorFramework = curatorFramework;
         this.secureRandom = new SecureRandom(Long.toBinaryString(System.currentTimeMillis()).getBytes());
         this.pathUtils = new CuratorPathUtils(processName);
@@ -71,7 +84,7 @@ public class NodeIdManager {
                 .build();
         try {
             retryer.call(() -> {
-                node = (zoneId * Constants.MAX_NODES_PER_ZONE) + secureRandom.nextInt(Constants.MAX_NODES_PER_ZONE);
+                node = (zoneId * nodesPerZone) + secureRandom.nextInt(nodesPerZone);
                 final String path = pathUtils.path(node);
                 try {
                     curatorFramework.create()
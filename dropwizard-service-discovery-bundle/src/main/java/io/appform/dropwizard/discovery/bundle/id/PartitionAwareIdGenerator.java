@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) 2021 Santanu Sinha <santanu.sinha@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package io.appform.dropwizard.discovery.bundle.id;
+
+import com.google.common.base.Preconditions;
+import io.appform.dropwizard.discovery.bundle.id.constraints.impl.KeyPartitioner;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Generates ids that fall in a requested partition. Candidate exponents of the current millisecond are rendered and
+ * handed to the partitioner one at a time, and only the first one that maps to the requested partition is claimed.
+ * Rejected candidates stay free for other callers, so the exponent space of the backing {@link DefaultIdGenerator}
+ * is used up no faster than with plain generation. Global constraints registered on the backing generator are
+ * applied to every id handed out.
+ * The partition of every candidate is remembered for the rest of its millisecond, so a candidate is rendered and
+ * hashed at most once per millisecond however many requests look at it.
+ * A millisecond holds only about idsPerMillisecond / partitionCount exponents of each partition. Once those are
+ * taken, requests for the partition move on to the next millisecond as the {@link ExhaustionPolicy} prescribes, so a
+ * single busy partition gets at most that many ids per millisecond.
+ * {@link AllocationMode#LOCK_FREE} and {@link AllocationMode#MONOTONIC} hand out exponents in a fixed order that
+ * cannot be skipped. With those, rejected candidates are used up just like with generate-then-reject.
+ */
+@Slf4j
+public class PartitionAwareIdGenerator {
+    //Partition + 1 in the low bits of a cache entry, milliseconds since the compact id epoch above them
+    private static final int PARTITION_BITS = 20;
+    private static final long PARTITION_MASK = (1L << PARTITION_BITS) - 1;
+
+    private final DefaultIdGenerator generator;
+    private final String prefix;
+    private final KeyPartitioner partitioner;
+    private final int partitionCount;
+    private volatile PartitionCache cache = new PartitionCache(-1, 0);
+
+    public PartitionAwareIdGenerator(String prefix, KeyPartitioner partitioner, int partitionCount) {
+        this(IdGenerator.getDefault(), prefix, partitioner, partitionCount);
+    }
+
+    public PartitionAwareIdGenerator(DefaultIdGenerator generator,
+                                     String prefix,
+                                     KeyPartitioner partitioner,
+                                     int partitionCount) {
+        Preconditions.checkArgument(generator != null, "Provide a non null id generator");
+        Preconditions.checkArgument(partitioner != null, "Provide a non null key partitioner");
+        Preconditions.checkArgument(partitionCount > 0 && partitionCount < PARTITION_MASK,
+                                    "Provide a positive partition count below " + PARTITION_MASK);
+        this.generator = generator;
+        this.prefix = prefix;
+        this.partitioner = partitioner;
+        this.partitionCount = partitionCount;
+    }
+
+    /**
+     * Generate an id for which the partitioner returns the given partition
+     *
+     * @param partition Partition between 0 and partitionCount - 1
+     * @return Id if one could be generated
+     */
+    public Optional<Id> generate(int partition) {
+        Preconditions.checkArgument(partition >= 0 && partition < partitionCount,
+                                    "Partition must be between 0 and " + (partitionCount - 1));
+        //Enough to run through what is left of a millisecond and still search the next one
+        final int maxCandidates = generator.getLayout().getIdsPerMillisecond() + 16 * partitionCount;
+        final Optional<Id> id = generator.generateMatching(
+                prefix, candidate -> partition(candidate) == partition, maxCandidates);
+        if (!id.isPresent()) {
+            log.error("Failed to generate id with prefix {} for partition {}", prefix, partition);
+        }
+        return id;
+    }
+
+    private int partition(Id candidate) {
+        final long offset = candidate.generatedTimeMillis() - CompactIdCodec.EPOCH;
+        final int exponent = candidate.getExponent();
+        PartitionCache current = cache;
+        if (current.node != candidate.getNode() || exponent >= current.partitions.length()) {
+            current = new PartitionCache(candidate.getNode(), generator.getLayout().getIdsPerMillisecond());
+            cache = current;
+        }
+        if (offset < 0 || exponent >= current.partitions.length()) {
+            return partitioner.partition(candidate);
+        }
+        final long stamp = offset << PARTITION_BITS;
+        final long entry = current.partitions.get(exponent);
+        if ((entry & ~PARTITION_MASK) == stamp && (entry & PARTITION_MASK) != 0) {
+            return (int) (entry & PARTITION_MASK) - 1;
+        }
+        final int computed = partitioner.partition(candidate);
+        //Out of range partitions are never asked for, remember them as one past the last partition
+        final int cached = computed >= 0 && computed < partitionCount ? computed : partitionCount;
+        current.partitions.set(exponent, stamp | (cached + 1));
+        return computed;
+    }
+
+    /**
+     * Partitions of the exponents of a node, each stamped with the millisecond it was computed for
+     */
+    private static final class PartitionCache {
+        private final int node;
+        private final AtomicLongArray partitions;
+
+        private PartitionCache(int node, int capacity) {
+            this.node = node;
+            this.partitions = new AtomicLongArray(capacity);
+        }
+    }
+}
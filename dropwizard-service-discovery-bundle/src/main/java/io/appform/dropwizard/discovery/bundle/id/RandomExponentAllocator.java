@@ -0,0 +1,143 @@
+/*
+ * Copyright (c) 2021 Santanu Sinha <santanu.sinha@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package io.appform.dropwizard.discovery.bundle.id;
+
+import com.codahale.metrics.Meter;
+
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Picks random exponents and guards against duplicates using a {@link ConcurrentCollisionChecker}, which reuses
+ * one bitmap for every millisecond instead of clearing it.
+ * Callers are serialized on the allocator, as it owns the entropy source and the current millisecond.
+ * Time is read from a {@link MonotonicClock}, ids are never issued against a millisecond earlier than the last one.
+ */
+class RandomExponentAllocator implements ExponentAllocator {
+    private final IntUnaryOperator random;
+    private final IdLayout layout;
+    private final int capacity;
+    private final ConcurrentCollisionChecker collisionChecker;
+    private final MonotonicClock clock;
+    private final ExhaustionHandler exhaustionHandler;
+    private final Meter collisionCount;
+    private long currentTime;
+    private boolean retired = false;
+
+    RandomExponentAllocator(IdLayout layout,
+                            MonotonicClock clock,
+                            ExhaustionHandler exhaustionHandler,
+                            EntropySource entropySource,
+                            Meter collisionCount,
+                            long startTime) {
+        this.layout = layout;
+        this.currentTime = startTime;
+        this.capacity = layout.getIdsPerMillisecond();
+        this.collisionChecker = new ConcurrentCollisionChecker(capacity);
+        this.random = entropySource.create();
+        this.clock = clock;
+        this.collisionCount = collisionCount;
+        this.exhaustionHandler = exhaustionHandler;
+    }
+
+    @Override
+    public synchronized IdInfo allocate() {
+        if (retired) {
+            return null;
+        }
+        advance();
+        return new IdInfo(next(), currentTime);
+    }
+
+    @Override
+    public synchronized ExponentBlock allocateBlock(int maxCount) {
+        if (retired) {
+            return null;
+        }
+        advance();
+        final int[] exponents
+                = new int[Math.min(maxCount, collisionChecker.remaining(currentTime, capacity))];
+        for (int i = 0; i < exponents.length; i++) {
+            exponents[i] = next();
+        }
+        return new ExponentBlock(currentTime, exponents, layout);
+    }
+
+    /**
+     * Candidates are scanned from a random exponent onwards. The filter runs outside the lock and accepted exponents
+     * are claimed straight from the collision checker, so other callers are not held up while candidates are tested.
+     */
+    @Override
+    public IdInfo allocateMatching(ExponentFilter filter, int maxCandidates) {
+        long earliest = Long.MIN_VALUE;
+        int offered = 0;
+        while (true) {
+            final long time;
+            final int start;
+            synchronized (this) {
+                if (retired) {
+                    return null;
+                }
+                currentTime = Math.max(currentTime, earliest);
+                advance();
+                time = currentTime;
+                start = random.applyAsInt(capacity);
+            }
+            for (int i = 0; i < capacity && offered < maxCandidates; i++) {
+                final int exponent = (start + i) % capacity;
+                if (collisionChecker.isFree(time, exponent)) {
+                    offered++;
+                    if (filter.accept(time, exponent) && collisionChecker.check(time, exponent)) {
+                        return new IdInfo(exponent, time);
+                    }
+                }
+            }
+            if (offered >= maxCandidates) {
+                return null;
+            }
+            //None of the free exponents of the millisecond was accepted
+            earliest = exhaustionHandler.nextMillisecond(time);
+        }
+    }
+
+    @Override
+    public synchronized long retire() {
+        retired = true;
+        return currentTime;
+    }
+
+    @Override
+    public IdLayout layout() {
+        return layout;
+    }
+
+    private void advance() {
+        currentTime = Math.max(clock.now(), currentTime);
+        if (collisionChecker.isExhausted(currentTime, capacity)) {
+            currentTime = exhaustionHandler.onExhausted(currentTime);
+        }
+    }
+
+    private int next() {
+        int randomGen = random.applyAsInt(capacity);
+        while (!collisionChecker.check(currentTime, randomGen)) {
+            collisionCount.mark();
+            randomGen = random.applyAsInt(capacity);
+        }
+        return randomGen;
+    }
+}
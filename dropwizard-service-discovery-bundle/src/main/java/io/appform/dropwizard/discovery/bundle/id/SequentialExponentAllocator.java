@@ -0,0 +1,37 @@
+/*
+ * Copyright (c) 2021 Santanu Sinha <santanu.sinha@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package io.appform.dropwizard.discovery.bundle.id;
+
+/**
+ * Lock free allocation that hands out exponents in sequence. Since the packed time and counter only move forward,
+ * ids are strictly increasing in the order they are allocated, including across a clock that moves backwards.
+ */
+class SequentialExponentAllocator extends LockFreeExponentAllocator {
+
+    SequentialExponentAllocator(IdLayout layout,
+                                MonotonicClock clock,
+                                ExhaustionHandler exhaustionHandler,
+                                long startTime) {
+        super(layout, clock, exhaustionHandler, startTime);
+    }
+
+    @Override
+    int exponent(long time, int sequence) {
+        return sequence;
+    }
+}
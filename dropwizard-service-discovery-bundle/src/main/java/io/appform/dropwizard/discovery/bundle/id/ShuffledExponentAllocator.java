@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) 2021 Santanu Sinha <santanu.sinha@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package io.appform.dropwizard.discovery.bundle.id;
+
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Draws exponents from a random permutation of the exponent space that is built incrementally
+ * (Fisher-Yates) as ids are handed out in a millisecond. Every draw costs a single random number and
+ * a swap, irrespective of how many exponents have already been used in the millisecond.
+ * Time is read from a {@link MonotonicClock}, ids are never issued against a millisecond earlier than the last one.
+ */
+class ShuffledExponentAllocator implements ExponentAllocator {
+    private final IntUnaryOperator random;
+    private final IdLayout layout;
+    private final int[] permutation;
+    private final MonotonicClock clock;
+    private final ExhaustionHandler exhaustionHandler;
+    private long currentTime;
+    private int issued = 0;
+    private boolean retired = false;
+
+    ShuffledExponentAllocator(IdLayout layout,
+                              MonotonicClock clock,
+                              ExhaustionHandler exhaustionHandler,
+                              EntropySource entropySource,
+                              long startTime) {
+        this.layout = layout;
+        this.currentTime = startTime;
+        this.clock = clock;
+        this.permutation = new int[layout.getIdsPerMillisecond()];
+        this.random = entropySource.create();
+        this.exhaustionHandler = exhaustionHandler;
+        for (int i = 0; i < permutation.length; i++) {
+            permutation[i] = i;
+        }
+    }
+
+    @Override
+    public synchronized IdInfo allocate() {
+        if (retired) {
+            return null;
+        }
+        advance();
+        return new IdInfo(next(), currentTime);
+    }
+
+    @Override
+    public synchronized ExponentBlock allocateBlock(int maxCount) {
+        if (retired) {
+            return null;
+        }
+        advance();
+        final int[] exponents = new int[Math.min(maxCount, permutation.length - issued)];
+        for (int i = 0; i < exponents.length; i++) {
+            exponents[i] = next();
+        }
+        return new ExponentBlock(currentTime, exponents, layout);
+    }
+
+    /**
+     * Candidates are the exponents not yet drawn in the millisecond, scanned from a random position of the
+     * permutation onwards. The accepted one is swapped into the drawn part, as if it had been drawn.
+     */
+    @Override
+    public synchronized IdInfo allocateMatching(ExponentFilter filter, int maxCandidates) {
+        if (retired) {
+            return null;
+        }
+        advance();
+        int offered = 0;
+        while (true) {
+            final int free = permutation.length - issued;
+            final int start = random.applyAsInt(free);
+            for (int i = 0; i < free && offered < maxCandidates; i++, offered++) {
+                final int selected = issued + (start + i) % free;
+                final int exponent = permutation[selected];
+                if (filter.accept(currentTime, exponent)) {
+                    permutation[selected] = permutation[issued];
+                    permutation[issued] = exponent;
+                    issued++;
+                    return new IdInfo(exponent, currentTime);
+                }
+            }
+            if (offered >= maxCandidates) {
+                return null;
+            }
+            //None of the free exponents of the millisecond was accepted
+            currentTime = exhaustionHandler.nextMillisecond(currentTime);
+            issued = 0;
+        }
+    }
+
+    @Override
+    public synchronized long retire() {
+        retired = true;
+        return currentTime;
+    }
+
+    @Override
+    public IdLayout layout() {
+        return layout;
+    }
+
+    private void advance() {
+        long now = Math.max(clock.now(), currentTime);
+        if (now == currentTime && issued == permutation.length) {
+            now = exhaustionHandler.onExhausted(currentTime);
+        }
+        if (now > currentTime) {
+            currentTime = now;
+            issued = 0;
+        }
+    }
+
+    private int next() {
+        final int selected = issued + random.applyAsInt(permutation.length - issued);
+        final int exponent = permutation[selected];
+        permutation[selected] = permutation[issued];
+        permutation[issued] = exponent;
+        issued++;
+        return exponent;
+    }
+}
@@ -33,7 +33,6 @@ public class JavaHashCodeBasedKeyPartitioner implements KeyPartitioner {
     @Override
     public int partition(Id id) {
         int hashCode = id.getId().hashCode();
-        hashCode *= hashCode < 0 ? -1 : 1;
-        return hashCode % maxPartitions;
+        return Math.abs(hashCode % maxPartitions);
     }
 }
@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2021 Santanu Sinha <santanu.sinha@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package io.appform.dropwizard.discovery.bundle.id.constraints.impl;
+
+import com.google.common.base.Preconditions;
+import io.appform.dropwizard.discovery.bundle.id.Id;
+import io.appform.dropwizard.discovery.bundle.id.constraints.IdValidationConstraint;
+
+import java.util.BitSet;
+
+/**
+ * Checks if key falls in any of a set of partitions. Constrained generation with this validator takes about
+ * 1 / (fraction of partitions owned) attempts per id.
+ */
+public class MultiPartitionValidator implements IdValidationConstraint {
+
+    private final long[] partitions;
+    private final KeyPartitioner partitioner;
+
+    /**
+     * @param partitions  Accepted partitions
+     * @param partitioner Partitioner for ids
+     */
+    public MultiPartitionValidator(BitSet partitions, KeyPartitioner partitioner) {
+        Preconditions.checkArgument(partitions != null && !partitions.isEmpty(),
+                                    "Provide at least one partition");
+        Preconditions.checkArgument(partitioner != null,
+                                    "Provide a non null key partitioner");
+        this.partitions = partitions.toLongArray();
+        this.partitioner = partitioner;
+    }
+
+    /**
+     * @param fromPartition First accepted partition
+     * @param toPartition   Partition after the last accepted one
+     * @param partitioner   Partitioner for ids
+     * @return Validator accepting partitions in the range
+     */
+    public static MultiPartitionValidator range(int fromPartition, int toPartition, KeyPartitioner partitioner) {
+        Preconditions.checkArgument(fromPartition >= 0 && fromPartition < toPartition,
+                                    "Provide a non-empty range of non-negative partitions");
+        final BitSet partitions = new BitSet(toPartition);
+        partitions.set(fromPartition, toPartition);
+        return new MultiPartitionValidator(partitions, partitioner);
+    }
+
+    @Override
+    public boolean isValid(Id id) {
+        final int partition = partitioner.partition(id);
+        final int word = partition >>> 6;
+        return partition >= 0
+                && word < partitions.length
+                && (partitions[word] & (1L << partition)) != 0;
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2021 Santanu Sinha <santanu.sinha@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package io.appform.dropwizard.discovery.bundle.id.constraints.impl;
+
+/**
+ * Allocation free MurmurHash3 (x86, 32 bit) over the UTF-16 chars of a string.
+ * Produces the same hash as Guava's {@code Hashing.murmur3_32(seed).hashUnencodedChars(chars)}.
+ */
+final class Murmur3 {
+    private static final int C1 = 0xcc9e2d51;
+    private static final int C2 = 0x1b873593;
+
+    private Murmur3() {
+    }
+
+    static int hash32(CharSequence chars, int seed) {
+        final int length = chars.length();
+        int h1 = seed;
+        for (int i = 1; i < length; i += 2) {
+            final int k1 = chars.charAt(i - 1) | (chars.charAt(i) << 16);
+            h1 = mixH1(h1, mixK1(k1));
+        }
+        if ((length & 1) == 1) {
+            h1 ^= mixK1(chars.charAt(length - 1));
+        }
+        return fmix(h1, 2 * length);
+    }
+
+    /**
+     * Map a hash uniformly to [0, bound) with a multiply and shift (Lemire) instead of a division
+     */
+    static int reduce(int hash, int bound) {
+        return (int) (((hash & 0xFFFFFFFFL) * bound) >>> 32);
+    }
+
+    private static int mixK1(int k1) {
+        k1 *= C1;
+        k1 = Integer.rotateLeft(k1, 15);
+        return k1 * C2;
+    }
+
+    private static int mixH1(int h1, int k1) {
+        h1 ^= k1;
+        h1 = Integer.rotateLeft(h1, 13);
+        return h1 * 5 + 0xe6546b64;
+    }
+
+    private static int fmix(int h1, int length) {
+        h1 ^= length;
+        h1 ^= h1 >>> 16;
+        h1 *= 0x85ebca6b;
+        h1 ^= h1 >>> 13;
+        h1 *= 0xc2b2ae35;
+        return h1 ^ (h1 >>> 16);
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2021 Santanu Sinha <santanu.sinha@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package io.appform.dropwizard.discovery.bundle.id.constraints.impl;
+
+import com.google.common.base.Preconditions;
+import io.appform.dropwizard.discovery.bundle.id.Id;
+
+/**
+ * Partitions ids on a murmur3 hash. The mapping of every {@link Version} is fixed, so ids keep their partition
+ * across releases. Pin a version to keep existing assignments, and run two partitioners side by side to migrate.
+ */
+public class Murmur3KeyPartitioner implements KeyPartitioner {
+
+    public enum Version {
+        /**
+         * murmur3_128 of {@link Id#toString()} modulo the partition count, same as {@link MurmurBasedKeyPartitioner}
+         */
+        V0,
+        /**
+         * murmur3_32 (seed 0) of the chars of {@link Id#getId()}, mapped to a partition by multiply and shift.
+         * Allocation free and independent of how the generation date is rendered.
+         */
+        V1;
+
+        public static final Version LATEST = V1;
+    }
+
+    private final int maxPartitions;
+    private final Version version;
+    private final MurmurBasedKeyPartitioner legacy;
+
+    public Murmur3KeyPartitioner(int maxPartitions) {
+        this(maxPartitions, Version.LATEST);
+    }
+
+    public Murmur3KeyPartitioner(int maxPartitions, Version version) {
+        Preconditions.checkArgument(maxPartitions > 0, "Provide a positive partition count");
+        Preconditions.checkArgument(version != null, "Provide a non null version");
+        this.maxPartitions = maxPartitions;
+        this.version = version;
+        this.legacy = version == Version.V0 ? new MurmurBasedKeyPartitioner(maxPartitions) : null;
+    }
+
+    @Override
+    public int partition(Id id) {
+        if (version == Version.V0) {
+            return legacy.partition(id);
+        }
+        return Murmur3.reduce(Murmur3.hash32(id.getId(), 0), maxPartitions);
+    }
+
+    public Version getVersion() {
+        return version;
+    }
+}
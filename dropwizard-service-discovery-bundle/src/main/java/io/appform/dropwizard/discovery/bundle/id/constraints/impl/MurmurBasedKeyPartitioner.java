@@ -23,7 +23,8 @@ import io.appform.dropwizard.discovery.bundle.id.Id;
 import java.nio.charset.StandardCharsets;
 
 /**
- *
+ * Partitions on murmur3_128 of {@link Id#toString()}. Kept for existing partition assignments, see
+ * {@link Murmur3KeyPartitioner} for a faster partitioner that hashes the id alone.
  */
 public class MurmurBasedKeyPartitioner implements KeyPartitioner {
 
@@ -36,7 +37,6 @@ public class MurmurBasedKeyPartitioner implements KeyPartitioner {
     @Override
     public int partition(Id id) {
         int hashCode = Hashing.murmur3_128().hashString(id.toString(), StandardCharsets.UTF_8).asInt();
-        hashCode *= hashCode < 0 ? -1 : 1;
-        return hashCode % maxPartitions;
+        return Math.abs(hashCode % maxPartitions);
     }
 }
@@ -23,7 +23,8 @@ import io.appform.dropwizard.discovery.bundle.id.constraints.IdValidationConstra
 import lombok.extern.slf4j.Slf4j;
 
 /**
- * Checks if key is same partition as provided.
+ * Checks if key is same partition as provided. Works with any {@link KeyPartitioner}, including the consistent
+ * {@link JumpHashKeyPartitioner} and {@link RendezvousKeyPartitioner}.
  */
 @Slf4j
 public class PartitionValidator implements IdValidationConstraint {
@@ -32,8 +33,8 @@ public class PartitionValidator implements IdValidationConstraint {
     private final KeyPartitioner partitioner;
 
     public PartitionValidator(int partition, KeyPartitioner partitioner) {
-        Preconditions.checkArgument(partition > 0,
-                                    "Provide a non-negative and non-zero partition count");
+        Preconditions.checkArgument(partition >= 0,
+                                    "Provide a non-negative partition");
         Preconditions.checkArgument(partitioner != null,
                                     "Provide a non null key partitioner");
         this.partition = partition;
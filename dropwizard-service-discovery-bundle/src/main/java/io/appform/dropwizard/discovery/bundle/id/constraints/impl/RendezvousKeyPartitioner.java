@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2021 Santanu Sinha <santanu.sinha@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package io.appform.dropwizard.discovery.bundle.id.constraints.impl;
+
+import com.google.common.base.Preconditions;
+import io.appform.dropwizard.discovery.bundle.id.Id;
+
+import java.util.Arrays;
+
+/**
+ * Partitions ids with rendezvous (highest random weight) hashing: every id goes to the partition with the highest
+ * score for it. Adding a partition moves only the ids that now score highest on it, and removing one moves only its
+ * own ids, wherever the partition sits in the list. Costs one hash per partition for every id.
+ */
+public class RendezvousKeyPartitioner implements KeyPartitioner {
+
+    private final int[] partitions;
+
+    /**
+     * @param maxPartitions Partitions 0 to maxPartitions - 1
+     */
+    public RendezvousKeyPartitioner(int maxPartitions) {
+        Preconditions.checkArgument(maxPartitions > 0, "Provide a positive partition count");
+        this.partitions = new int[maxPartitions];
+        for (int i = 0; i < maxPartitions; i++) {
+            partitions[i] = i;
+        }
+    }
+
+    /**
+     * @param partitions Partitions to choose from, need not be contiguous
+     */
+    public RendezvousKeyPartitioner(int[] partitions) {
+        Preconditions.checkArgument(null != partitions && partitions.length > 0, "Provide at least one partition");
+        Preconditions.checkArgument(Arrays.stream(partitions).allMatch(partition -> partition >= 0),
+                                    "Provide non-negative partitions");
+        this.partitions = partitions.clone();
+    }
+
+    @Override
+    public int partition(Id id) {
+        final long key = KeyHash.hash64(id.getId());
+        int selected = partitions[0];
+        long maxScore = score(key, selected);
+        for (int i = 1; i < partitions.length; i++) {
+            final long score = score(key, partitions[i]);
+            if (score > maxScore) {
+                maxScore = score;
+                selected = partitions[i];
+            }
+        }
+        return selected;
+    }
+
+    private static long score(long key, int partition) {
+        return KeyHash.fmix64(key ^ (partition * 0x9e3779b97f4a7c15L));
+    }
+}
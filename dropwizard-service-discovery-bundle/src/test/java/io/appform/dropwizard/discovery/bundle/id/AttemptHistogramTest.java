@@ -0,0 +1,50 @@
+/*
+ * Copyright (c) 2021 Santanu Sinha <santanu.sinha@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package io.appform.dropwizard.discovery.bundle.id;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test on {@link AttemptHistogram}
+ */
+public class AttemptHistogramTest {
+
+    @Test
+    public void testBuckets() {
+        Assert.assertEquals(0, AttemptHistogram.bucketFor(1));
+        Assert.assertEquals(1, AttemptHistogram.bucketFor(2));
+        Assert.assertEquals(2, AttemptHistogram.bucketFor(3));
+        Assert.assertEquals(2, AttemptHistogram.bucketFor(4));
+        Assert.assertEquals(3, AttemptHistogram.bucketFor(5));
+        Assert.assertEquals(9, AttemptHistogram.bucketFor(512));
+        Assert.assertEquals(31, AttemptHistogram.bucketFor(Integer.MAX_VALUE));
+        for (int attempts = 1; attempts < 10_000; attempts++) {
+            Assert.assertTrue(attempts <= AttemptHistogram.getUpperBound(AttemptHistogram.bucketFor(attempts)));
+        }
+
+        final AttemptHistogram histogram = new AttemptHistogram();
+        histogram.record(1);
+        histogram.record(7);
+        histogram.recordExhausted(512);
+        Assert.assertEquals(1, histogram.getCount(0));
+        Assert.assertEquals(1, histogram.getCount(3));
+        Assert.assertEquals(1, histogram.getCount(9));
+        Assert.assertEquals(1, histogram.getExhaustedCount());
+    }
+}
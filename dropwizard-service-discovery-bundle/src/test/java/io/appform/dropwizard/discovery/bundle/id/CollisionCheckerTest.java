@@ -36,4 +36,27 @@ public class CollisionCheckerTest {
         }
 
     }
+
+    @Test
+    public void testExhaustion() {
+        CollisionChecker collisionChecker = new CollisionChecker();
+        for (int i = 0; i < 1000; i++) {
+            Assert.assertFalse(collisionChecker.isExhausted(101, 1000));
+            Assert.assertEquals(1000 - i, collisionChecker.remaining(101, 1000));
+            Assert.assertTrue(collisionChecker.check(101, i));
+        }
+        Assert.assertTrue(collisionChecker.isExhausted(101, 1000));
+        Assert.assertFalse(collisionChecker.isExhausted(102, 1000));
+    }
+
+    @Test
+    public void testWideCapacity() {
+        CollisionChecker collisionChecker = new CollisionChecker(100_000);
+        for (int i = 0; i < 100_000; i++) {
+            Assert.assertTrue(collisionChecker.check(100, i));
+        }
+        Assert.assertFalse(collisionChecker.check(100, 99_999));
+        Assert.assertTrue(collisionChecker.isExhausted(100, 100_000));
+        Assert.assertEquals(100_000, collisionChecker.remaining(101, 100_000));
+    }
 }
\ No newline at end of file
@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2021 Santanu Sinha <santanu.sinha@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package io.appform.dropwizard.discovery.bundle.id;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Test on {@link CompactIdCodec}
+ */
+public class CompactIdCodecTest {
+
+    @Test
+    public void testRoundTrip() {
+        final Random random = new Random(42);
+        final IdFields fields = new IdFields();
+        for (int i = 0; i < 10_000; i++) {
+            final long time = CompactIdCodec.EPOCH + (random.nextLong() >>> 24);
+            final Id id = Id.of("PFX", time, random.nextInt(10_000), random.nextInt(1000));
+            final String compact = id.asCompactString();
+            Assert.assertEquals(CompactIdCodec.LENGTH, compact.length());
+            Assert.assertEquals(id, IdGenerator.parseCompact("PFX" + compact).orElse(null));
+            Assert.assertEquals(id, IdGenerator.fromLong("PFX", id.asLong()).orElse(null));
+            Assert.assertTrue(IdGenerator.parseCompact(compact, fields));
+            Assert.assertEquals(0, fields.getPrefixLength());
+            Assert.assertEquals(time, fields.getGeneratedTime());
+            Assert.assertEquals(id.getNode(), fields.getNode());
+            Assert.assertEquals(id.getExponent(), fields.getExponent());
+        }
+    }
+
+    @Test
+    public void testOrderFollowsTime() {
+        final Random random = new Random(7);
+        final List<Id> ids = new ArrayList<>();
+        final List<String> compact = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            final Id id = Id.of("", CompactIdCodec.EPOCH + (random.nextLong() >>> 24) / 1000 * 1000 + i, 9999, 999);
+            ids.add(id);
+            compact.add(id.asCompactString());
+        }
+        ids.sort((lhs, rhs) -> Long.compare(lhs.generatedTimeMillis(), rhs.generatedTimeMillis()));
+        Collections.sort(compact);
+        for (int i = 0; i < ids.size(); i++) {
+            Assert.assertEquals(ids.get(i).asCompactString(), compact.get(i));
+            if (i > 0) {
+                Assert.assertTrue(Long.compareUnsigned(ids.get(i - 1).asLong(), ids.get(i).asLong()) < 0);
+            }
+        }
+    }
+
+    @Test
+    public void testGeneratedIds() {
+        final Id id = IdGenerator.generate("TXN");
+        Assert.assertEquals(id.getId(), IdGenerator.parseCompact("TXN" + id.asCompactString())
+                .map(Id::getId)
+                .orElse(null));
+        final Id built = Id.builder()
+                .id(id.getId())
+                .generatedDate(new Date(id.generatedTimeMillis()))
+                .node(id.getNode())
+                .exponent(id.getExponent())
+                .build();
+        Assert.assertEquals(id.asLong(), built.asLong());
+    }
+
+    @Test
+    public void testInvalidStrings() {
+        final IdFields fields = new IdFields();
+        Assert.assertFalse(IdGenerator.parseCompact(null, fields));
+        Assert.assertFalse(IdGenerator.parseCompact("0123456789", fields));
+        Assert.assertFalse(IdGenerator.parseCompact("0123456789-", fields));
+        //Beyond 64 bits
+        Assert.assertFalse(IdGenerator.parseCompact("zzzzzzzzzzz", fields));
+        //Exponent outside the default layout
+        Assert.assertFalse(IdGenerator.parseCompact(CompactIdCodec.toString(1023), fields));
+        Assert.assertFalse(IdGenerator.fromLong("A", 1023).isPresent());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testWideExponentRejected() {
+        Id.of("W", System.currentTimeMillis(), 1, 5000, IdLayout.of(4, 4)).asLong();
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testOtherLayoutRejected() {
+        Id.of("W", System.currentTimeMillis(), 1, 5, IdLayout.of(5, 3)).asLong();
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testTimeBeforeEpochRejected() {
+        Id.of("W", CompactIdCodec.EPOCH - 1, 1, 1).asLong();
+    }
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright (c) 2021 Santanu Sinha <santanu.sinha@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package io.appform.dropwizard.discovery.bundle.id;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Test on {@link ConcurrentCollisionChecker}
+ */
+public class ConcurrentCollisionCheckerTest {
+    private static final int THREADS = 64;
+
+    @Test
+    public void testCheck() {
+        final ConcurrentCollisionChecker collisionChecker = new ConcurrentCollisionChecker();
+        Assert.assertTrue(collisionChecker.check(100, 1));
+        Assert.assertFalse(collisionChecker.check(100, 1));
+        for (int i = 0; i < 1000; i++) {
+            Assert.assertFalse(collisionChecker.isExhausted(101, 1000));
+            Assert.assertTrue(collisionChecker.check(101, i));
+            Assert.assertFalse(collisionChecker.check(101, i));
+        }
+        Assert.assertTrue(collisionChecker.isExhausted(101, 1000));
+        Assert.assertFalse(collisionChecker.isExhausted(102, 1000));
+        //Older periods can no longer be checked
+        Assert.assertFalse(collisionChecker.check(100, 2));
+        Assert.assertTrue(collisionChecker.isExhausted(100, 1000));
+    }
+
+    @Test
+    public void testLocationOutOfRange() {
+        final ConcurrentCollisionChecker collisionChecker = new ConcurrentCollisionChecker(40);
+        Assert.assertFalse(collisionChecker.check(100, -1));
+        Assert.assertFalse(collisionChecker.check(100, 40));
+        Assert.assertFalse(collisionChecker.check(100, Integer.MAX_VALUE));
+        Assert.assertTrue(collisionChecker.check(100, 39));
+        Assert.assertEquals(39, collisionChecker.remaining(100, 40));
+    }
+
+    @Test
+    public void testLaterPeriodsStartEmpty() {
+        final ConcurrentCollisionChecker collisionChecker = new ConcurrentCollisionChecker();
+        for (long time = 100; time < 110; time++) {
+            for (int i = 0; i < 1000; i++) {
+                Assert.assertTrue(collisionChecker.check(time, i));
+            }
+            Assert.assertTrue(collisionChecker.isExhausted(time, 1000));
+            for (int i = 0; i < 1000; i++) {
+                Assert.assertFalse(collisionChecker.check(time, i));
+            }
+        }
+        //Skipping periods leaves no claims behind either
+        Assert.assertTrue(collisionChecker.check(1L << 32, 5));
+        Assert.assertEquals(999, collisionChecker.remaining(1L << 32, 1000));
+    }
+
+    @Test
+    public void testEveryLocationClaimedOnce() throws Exception {
+        final ConcurrentCollisionChecker collisionChecker = new ConcurrentCollisionChecker();
+        final Set<Long> claimed = ConcurrentHashMap.newKeySet();
+        final AtomicInteger duplicates = new AtomicInteger();
+        runConcurrently(thread -> {
+            for (int i = 0; i < 1000; i++) {
+                //Threads walk the locations from different offsets to contend on the same words
+                final int location = (i + thread * 16) % 1000;
+                if (collisionChecker.check(100, location) && !claimed.add((long) location)) {
+                    duplicates.incrementAndGet();
+                }
+            }
+        });
+        Assert.assertEquals(0, duplicates.get());
+        Assert.assertEquals(1000, claimed.size());
+        Assert.assertTrue(collisionChecker.isExhausted(100, 1000));
+    }
+
+    @Test
+    public void testNoDuplicatesUnderContention() throws Exception {
+        final ConcurrentCollisionChecker collisionChecker = new ConcurrentCollisionChecker();
+        final Set<Long> claimed = ConcurrentHashMap.newKeySet();
+        final AtomicInteger duplicates = new AtomicInteger();
+        runConcurrently(thread -> {
+            final ThreadLocalRandom random = ThreadLocalRandom.current();
+            for (int i = 0; i < 20_000; i++) {
+                final long time = System.currentTimeMillis();
+                final int location = random.nextInt(1000);
+                if (collisionChecker.check(time, location) && !claimed.add(time * 1000 + location)) {
+                    duplicates.incrementAndGet();
+                }
+            }
+        });
+        Assert.assertEquals(0, duplicates.get());
+        Assert.assertFalse(claimed.isEmpty());
+    }
+
+    private interface Worker {
+        void run(int thread) throws Exception;
+    }
+
+    private static void runConcurrently(Worker worker) throws Exception {
+        final ExecutorService executorService = Executors.newFixedThreadPool(THREADS);
+        final CountDownLatch start = new CountDownLatch(1);
+        final List<Future<?>> futures = new ArrayList<>();
+        for (int thread = 0; thread < THREADS; thread++) {
+            final int threadId = thread;
+            futures.add(executorService.submit(() -> {
+                start.await();
+                worker.run(threadId);
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executorService.shutdown();
+    }
+}
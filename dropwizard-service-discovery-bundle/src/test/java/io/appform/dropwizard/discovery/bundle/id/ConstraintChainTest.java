@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2021 Santanu Sinha <santanu.sinha@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package io.appform.dropwizard.discovery.bundle.id;
+
+import com.google.common.collect.ImmutableList;
+import io.appform.dropwizard.discovery.bundle.id.constraints.IdValidationConstraint;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Test on {@link ConstraintChain}
+ */
+public class ConstraintChainTest {
+
+    @Test
+    public void testShortCircuitAndRejectionCounts() {
+        final AtomicInteger lastCalls = new AtomicInteger();
+        final IdValidationConstraint acceptAll = id -> true;
+        final IdValidationConstraint evenExponent = id -> id.getExponent() % 2 == 0;
+        final IdValidationConstraint last = id -> {
+            lastCalls.incrementAndGet();
+            return false;
+        };
+        final ConstraintChain chain = ConstraintChain.compile(ImmutableList.of(acceptAll, evenExponent))
+                .append(Collections.singletonList(last));
+        Assert.assertEquals(3, chain.size());
+
+        Assert.assertEquals(1, chain.firstRejection(Id.of("T", 0L, 1, 1)));
+        Assert.assertEquals(0, lastCalls.get());
+        Assert.assertEquals(2, chain.firstRejection(Id.of("T", 0L, 1, 2)));
+        Assert.assertEquals(1, lastCalls.get());
+
+        Assert.assertEquals(0, chain.getRejectionCount(0));
+        Assert.assertEquals(1, chain.getRejectionCount(1));
+        Assert.assertEquals(1, chain.getRejectionCount(2));
+
+        final ConstraintChain extended = chain.append(Collections.singletonList(acceptAll));
+        Assert.assertEquals(1, extended.getRejectionCount(1));
+        Assert.assertEquals(0, extended.getRejectionCount(3));
+    }
+
+    @Test
+    public void testAdHocAndEmpty() {
+        Assert.assertEquals(-1, ConstraintChain.EMPTY.firstRejection(Id.of("T", 0L, 1, 1)));
+        Assert.assertSame(ConstraintChain.EMPTY, ConstraintChain.adHoc(null));
+        Assert.assertSame(ConstraintChain.EMPTY, ConstraintChain.compile(Collections.emptyList()));
+
+        final ConstraintChain adHoc = ConstraintChain.adHoc(Collections.singletonList(id -> false));
+        Assert.assertEquals(0, adHoc.firstRejection(Id.of("T", 0L, 1, 1)));
+        Assert.assertEquals(0, adHoc.getRejectionCount(0));
+    }
+
+    @Test
+    public void testReorderByRejectionRate() {
+        final IdValidationConstraint rarelyRejects = id -> id.getExponent() != 0;
+        final IdValidationConstraint oftenRejects = id -> id.getExponent() % 10 == 0;
+        final ConstraintChain chain = ConstraintChain.compile(ImmutableList.of(rarelyRejects, oftenRejects));
+        evaluate(chain);
+        Assert.assertEquals(ImmutableList.of(oftenRejects, rarelyRejects), chain.getEvaluationOrder());
+        Assert.assertEquals(ImmutableList.of(rarelyRejects, oftenRejects), chain.getConstraints());
+    }
+
+    @Test
+    public void testNoReorderAcrossFailFast() {
+        final IdValidationConstraint rarelyRejects = id -> id.getExponent() != 0;
+        final IdValidationConstraint failFast = new IdValidationConstraint() {
+            @Override
+            public boolean isValid(Id id) {
+                return true;
+            }
+
+            @Override
+            public boolean failFast() {
+                return true;
+            }
+        };
+        final IdValidationConstraint oftenRejects = id -> id.getExponent() % 10 == 0;
+        final ConstraintChain chain = ConstraintChain.compile(ImmutableList.of(rarelyRejects, failFast, oftenRejects));
+        evaluate(chain);
+        Assert.assertEquals(ImmutableList.of(rarelyRejects, failFast, oftenRejects), chain.getEvaluationOrder());
+    }
+
+    private static void evaluate(ConstraintChain chain) {
+        for (int i = 0; i < ConstraintChain.SAMPLE_RATE * ConstraintChain.REORDER_INTERVAL * 4; i++) {
+            chain.firstRejection(Id.of("T", 0L, 1, i % 1000));
+        }
+        chain.reorder();
+    }
+}
@@ -0,0 +1,198 @@
+/*
+ * Copyright (c) 2021 Santanu Sinha <santanu.sinha@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package io.appform.dropwizard.discovery.bundle.id;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Test for {@link DefaultIdGenerator}
+ */
+public class DefaultIdGeneratorTest {
+
+    @Test
+    public void testIndependentInstances() {
+        final DefaultIdGenerator first = new DefaultIdGenerator(1);
+        final DefaultIdGenerator second = new DefaultIdGenerator(
+                2,
+                Collections.emptyList(),
+                Collections.singletonMap("even", Collections.singletonList(id -> id.getExponent() % 2 == 0)),
+                IdGeneratorConfig.builder().allocationMode(AllocationMode.LOCK_FREE).build());
+
+        Assert.assertEquals(1, first.generate("A").getNode());
+        Assert.assertEquals(2, second.generate("A").getNode());
+
+        first.registerDomainSpecificConstraints("even", id -> false);
+        Assert.assertFalse(first.generateWithConstraints("A", "even").isPresent());
+        Assert.assertEquals(0, second.generateWithConstraints("A", "even")
+                .map(id -> id.getExponent() % 2)
+                .orElse(-1)
+                .intValue());
+
+        first.cleanUp();
+        Assert.assertEquals(0, first.getConstraintChain("even").size());
+        Assert.assertEquals(1, second.getConstraintChain("even").size());
+        Assert.assertEquals(0, IdGenerator.getConstraintChain("even").size());
+    }
+
+    @Test
+    public void testUniqueWithinInstance() {
+        final DefaultIdGenerator generator = new DefaultIdGenerator(
+                7, IdGeneratorConfig.builder().allocationMode(AllocationMode.SHUFFLED).build());
+        final Set<String> ids = new HashSet<>();
+        for (Id id : generator.generateBatch("B", 5_000)) {
+            Assert.assertTrue(ids.add(id.getId()));
+        }
+        Assert.assertEquals(7, generator.nodeId());
+    }
+
+    @Test
+    public void testMonotonic() throws Exception {
+        final DefaultIdGenerator generator = new DefaultIdGenerator(
+                11, IdGeneratorConfig.builder().allocationMode(AllocationMode.MONOTONIC).build());
+        final Set<String> ids = ConcurrentHashMap.newKeySet();
+        final ExecutorService executorService = Executors.newFixedThreadPool(8);
+        final List<Future<?>> futures = new ArrayList<>();
+        for (int thread = 0; thread < 8; thread++) {
+            final boolean batched = thread % 2 == 0;
+            futures.add(executorService.submit(() -> {
+                String last = "";
+                for (int i = 0; i < 20_000; i += batched ? 10 : 1) {
+                    for (Id id : batched ? generator.generateBatch("M", 10) : new Id[]{generator.generate("M")}) {
+                        Assert.assertTrue(id.getId().compareTo(last) > 0);
+                        Assert.assertTrue(ids.add(id.getId()));
+                        last = id.getId();
+                    }
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executorService.shutdown();
+        Assert.assertEquals(160_000, ids.size());
+    }
+
+    @Test
+    public void testReconfigureWhileGenerating() throws Exception {
+        final DefaultIdGenerator generator = new DefaultIdGenerator(
+                3, IdGeneratorConfig.builder().allocationMode(AllocationMode.MONOTONIC).build());
+        final Set<String> ids = ConcurrentHashMap.newKeySet();
+        final ExecutorService executorService = Executors.newFixedThreadPool(4);
+        final List<Future<?>> futures = new ArrayList<>();
+        for (int thread = 0; thread < 4; thread++) {
+            futures.add(executorService.submit(() -> {
+                String last = "";
+                for (int i = 0; i < 20_000; i++) {
+                    final String id = generator.generate("R").getId();
+                    //Ordering holds across allocators, as each one starts after the one it replaces
+                    Assert.assertTrue(id.compareTo(last) > 0);
+                    Assert.assertTrue(ids.add(id));
+                    last = id;
+                }
+            }));
+        }
+        for (int i = 0; i < 200; i++) {
+            generator.initialize(3, IdGeneratorConfig.builder().allocationMode(AllocationMode.MONOTONIC).build());
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executorService.shutdown();
+        Assert.assertEquals(80_000, ids.size());
+
+        for (AllocationMode mode : AllocationMode.values()) {
+            generator.initialize(3, IdGeneratorConfig.builder().allocationMode(mode).build());
+            for (Id id : generator.generateBatch("R", 1_000)) {
+                Assert.assertTrue(ids.add(id.getId()));
+            }
+        }
+    }
+
+    @Test
+    public void testWideLayout() {
+        for (AllocationMode mode : AllocationMode.values()) {
+            final DefaultIdGenerator generator = new DefaultIdGenerator(
+                    123_456,
+                    IdGeneratorConfig.builder()
+                            .allocationMode(mode)
+                            .entropySource(EntropySource.SPLITTABLE_RANDOM)
+                            .nodeDigits(6)
+                            .exponentDigits(5)
+                            .build());
+            Assert.assertEquals(IdLayout.of(6, 5), generator.getLayout());
+            final Set<String> ids = new HashSet<>();
+            final Id[] batch = generator.generateBatch("W", 20_000);
+            //More ids than the default layout allows in a millisecond
+            Assert.assertEquals(batch[0].generatedTimeMillis(), batch[1_500].generatedTimeMillis());
+            for (Id id : batch) {
+                Assert.assertEquals(27, id.getId().length());
+                Assert.assertTrue(ids.add(id.getId()));
+            }
+            final Id id = generator.generate("W");
+            final Id parsed = generator.parse(id.getId()).orElse(null);
+            Assert.assertNotNull(parsed);
+            Assert.assertEquals(123_456, parsed.getNode());
+            Assert.assertEquals(id.getExponent(), parsed.getExponent());
+            Assert.assertEquals(id.getGeneratedDate(), parsed.getGeneratedDate());
+        }
+    }
+
+    @Test
+    public void testReinitializeDropsPooledIds() throws Exception {
+        final DefaultIdGenerator generator = new DefaultIdGenerator(23);
+        generator.registerDomainSpecificConstraints("any", id -> true);
+        generator.registerPool("P", IdPoolConfig.builder()
+                .capacity(1024)
+                .lowWatermark(512)
+                .build());
+        generator.registerPool("P", "any", IdPoolConfig.builder()
+                .capacity(1024)
+                .lowWatermark(512)
+                .build());
+        try {
+            //Let the pools fill up with ids of the first node
+            Thread.sleep(200);
+            generator.initialize(77);
+            for (int i = 0; i < 2_000; i++) {
+                Assert.assertEquals(77, generator.generate("P").getNode());
+                Assert.assertEquals(77, generator.generateWithConstraints("P", "any")
+                        .map(Id::getNode)
+                        .orElse(-1)
+                        .intValue());
+            }
+            generator.initialize(77, IdGeneratorConfig.builder().nodeDigits(5).build());
+            for (int i = 0; i < 2_000; i++) {
+                Assert.assertEquals(24, generator.generate("P").getId().length());
+            }
+        }
+        finally {
+            generator.cleanUp();
+        }
+    }
+}
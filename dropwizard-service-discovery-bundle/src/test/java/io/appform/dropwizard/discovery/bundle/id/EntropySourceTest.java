@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2021 Santanu Sinha <santanu.sinha@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package io.appform.dropwizard.discovery.bundle.id;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.IntUnaryOperator;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Test on {@link EntropySource}
+ */
+public class EntropySourceTest {
+
+    @Test
+    public void testBounds() {
+        for (EntropySource source : EntropySource.values()) {
+            final IntUnaryOperator random = source.create();
+            final boolean[] seen = new boolean[10];
+            for (int i = 0; i < 10_000; i++) {
+                final int value = random.applyAsInt(10);
+                Assert.assertTrue(value >= 0 && value < 10);
+                seen[value] = true;
+            }
+            for (boolean value : seen) {
+                Assert.assertTrue(source.name(), value);
+            }
+        }
+    }
+
+    @Test
+    public void testDistribution() {
+        for (EntropySource source : EntropySource.values()) {
+            final IntUnaryOperator random = source.create();
+            final int[] counts = new int[10];
+            for (int i = 0; i < 100_000; i++) {
+                counts[random.applyAsInt(10)]++;
+            }
+            for (int count : counts) {
+                //Expected 10000 per bucket, the bound is more than ten standard deviations wide
+                Assert.assertTrue(source.name() + ": " + count, Math.abs(count - 10_000) < 1_000);
+            }
+        }
+    }
+
+    @Test
+    public void testUniqueIdsFromEverySource() throws Exception {
+        final int numThreads = 4;
+        final int idsPerThread = 5_000;
+        for (AllocationMode mode : new AllocationMode[]{AllocationMode.RANDOM, AllocationMode.SHUFFLED}) {
+            for (EntropySource source : EntropySource.values()) {
+                final DefaultIdGenerator generator = new DefaultIdGenerator(
+                        23, IdGeneratorConfig.builder().allocationMode(mode).entropySource(source).build());
+                final Set<String> ids = ConcurrentHashMap.newKeySet();
+                final ExecutorService executorService = Executors.newFixedThreadPool(numThreads);
+                final List<Future<?>> futures = IntStream.range(0, numThreads)
+                        .mapToObj(i -> executorService.submit(() -> {
+                            for (int j = 0; j < idsPerThread; j++) {
+                                Assert.assertTrue(ids.add(generator.generate("X").getId()));
+                            }
+                        }))
+                        .collect(Collectors.toList());
+                for (Future<?> future : futures) {
+                    future.get();
+                }
+                executorService.shutdown();
+                Assert.assertEquals(mode + " with " + source, numThreads * idsPerThread, ids.size());
+            }
+        }
+    }
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright (c) 2021 Santanu Sinha <santanu.sinha@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package io.appform.dropwizard.discovery.bundle.id;
+
+import com.codahale.metrics.Meter;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test on {@link ExhaustionHandler}
+ */
+public class ExhaustionHandlerTest {
+
+    @Test
+    public void testSpinAndPark() {
+        final Meter counter = new Meter();
+        for (ExhaustionPolicy policy : new ExhaustionPolicy[]{ExhaustionPolicy.SPIN, ExhaustionPolicy.PARK}) {
+            final ExhaustionHandler handler = new ExhaustionHandler(policy, 10, counter);
+            final long exhausted = System.currentTimeMillis() + 5;
+            final long next = handler.onExhausted(exhausted);
+            Assert.assertTrue(next > exhausted);
+            Assert.assertTrue(System.currentTimeMillis() >= next);
+        }
+        Assert.assertEquals(2, counter.getCount());
+    }
+
+    @Test
+    public void testBorrow() {
+        final Meter counter = new Meter();
+        final ExhaustionHandler handler = new ExhaustionHandler(ExhaustionPolicy.BORROW, 10, counter);
+        final long now = System.currentTimeMillis();
+        Assert.assertEquals(now + 1, handler.onExhausted(now));
+        Assert.assertEquals(now + 6, handler.onExhausted(now + 5));
+
+        //Drift limit crossed, should wait for the clock instead
+        final long next = handler.onExhausted(now + 50);
+        Assert.assertTrue(next > now + 50);
+        Assert.assertTrue(System.currentTimeMillis() >= next);
+        Assert.assertEquals(3, counter.getCount());
+    }
+}
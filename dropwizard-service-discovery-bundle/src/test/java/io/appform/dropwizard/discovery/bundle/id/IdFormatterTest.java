@@ -0,0 +1,69 @@
+/*
+ * Copyright (c) 2021 Santanu Sinha <santanu.sinha@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package io.appform.dropwizard.discovery.bundle.id;
+
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+import org.joda.time.format.DateTimeFormat;
+import org.joda.time.format.DateTimeFormatter;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Random;
+
+/**
+ * Test on {@link IdFormatter}
+ */
+public class IdFormatterTest {
+    private static final DateTimeFormatter formatter = DateTimeFormat.forPattern("yyMMddHHmmssSSS");
+
+    @Test
+    public void testFormatMatchesStringFormat() {
+        final DateTimeZone defaultZone = DateTimeZone.getDefault();
+        final Random random = new Random(42);
+        try {
+            for (String zone : new String[]{"UTC", "Asia/Kolkata", "America/New_York"}) {
+                DateTimeZone.setDefault(DateTimeZone.forID(zone));
+                long time = System.currentTimeMillis();
+                for (int i = 0; i < 10_000; i++) {
+                    time += random.nextInt(100_000_000);
+                    assertSameAsStringFormat("ABC", time, random.nextInt(10_000), random.nextInt(1000));
+                }
+            }
+        }
+        finally {
+            DateTimeZone.setDefault(defaultZone);
+        }
+    }
+
+    @Test
+    public void testFormatEdgeCases() {
+        final long time = System.currentTimeMillis();
+        assertSameAsStringFormat("", time, 0, 0);
+        assertSameAsStringFormat(null, time, 9999, 999);
+        assertSameAsStringFormat("A-VERY-LONG-PREFIX-THAT-DOES-NOT-FIT-IN-THE-INITIAL-BUFFER-AT-ALL", time, 23, 1);
+        assertSameAsStringFormat("X", time, 12345, 7);
+        assertSameAsStringFormat("X", time - (time % 1000), 1, 1);
+    }
+
+    private static void assertSameAsStringFormat(String prefix, long time, int node, int exponent) {
+        Assert.assertEquals(
+                String.format("%s%s%04d%03d", prefix, formatter.print(new DateTime(time)), node, exponent),
+                IdFormatter.format(prefix, time, node, exponent));
+    }
+}
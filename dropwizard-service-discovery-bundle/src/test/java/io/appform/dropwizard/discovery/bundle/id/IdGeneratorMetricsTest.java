@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) 2021 Santanu Sinha <santanu.sinha@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package io.appform.dropwizard.discovery.bundle.id;
+
+import com.codahale.metrics.MetricRegistry;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Collections;
+
+/**
+ * Test on {@link IdGeneratorMetrics}
+ */
+public class IdGeneratorMetricsTest {
+
+    @Test
+    public void testPublishedMetrics() {
+        final MetricRegistry registry = new MetricRegistry();
+        final DefaultIdGenerator generator = new DefaultIdGenerator(23);
+        generator.generate("T");
+        generator.registerMetrics(registry, "ids");
+
+        generator.generate("T");
+        generator.generateBatch("T", 10);
+        generator.registerDomainSpecificConstraints("even", id -> id.getExponent() % 2 == 0);
+        generator.registerDomainSpecificConstraints("never", id -> false);
+        generator.registerDomainMaxAttempts("never", 3);
+        Assert.assertTrue(generator.generateWithConstraints("T", "even").isPresent());
+        Assert.assertFalse(generator.generateWithConstraints("T", "never").isPresent());
+        Assert.assertFalse(generator.generateWithConstraints("T", Collections.singletonList(id -> false)).isPresent());
+
+        Assert.assertEquals(13, registry.meter("ids.generated").getCount());
+        Assert.assertEquals(2, registry.meter("ids.constrained.attemptLimit").getCount());
+        Assert.assertEquals(0, registry.meter("ids.constrained.failFast").getCount());
+        Assert.assertEquals(1, registry.histogram("ids.constrained.even.attempts").getCount());
+        Assert.assertEquals(3, registry.histogram("ids.constrained.never.attempts").getSnapshot().getMax());
+        Assert.assertEquals(1, registry.timer("ids.constrained.adhoc.time").getCount());
+        Assert.assertTrue(registry.getMeters().containsKey("ids.collisions"));
+        Assert.assertTrue(registry.getMeters().containsKey("ids.exhaustions"));
+        Assert.assertEquals(0, registry.meter("ids.clockRegression.borrowed").getCount());
+        Assert.assertTrue(registry.getMeters().containsKey("ids.clockRegression.waited"));
+        Assert.assertTrue(registry.getMeters().containsKey("ids.clockRegression.failed"));
+
+        generator.registerMetrics(registry, "ids");
+        Assert.assertEquals(13, registry.meter("ids.generated").getCount());
+        generator.generate("T");
+        Assert.assertEquals(14, registry.meter("ids.generated").getCount());
+    }
+}
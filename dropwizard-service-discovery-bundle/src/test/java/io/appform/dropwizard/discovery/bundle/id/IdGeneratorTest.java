@@ -30,11 +30,18 @@ import org.junit.Test;
 import java.time.*;
 import java.util.Collections;
 import java.util.Date;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 /**
  * Test for {@link IdGenerator}
@@ -137,6 +144,134 @@ public class IdGeneratorTest {
 
     }
 
+    @Test
+    public void testGenerateLockFreeUnique() throws Exception {
+        IdGenerator.initialize(23, IdGeneratorConfig.builder()
+                .allocationMode(AllocationMode.LOCK_FREE)
+                .build());
+        try {
+            assertUniqueAcrossThreads(16, 10_000);
+        }
+        finally {
+            IdGenerator.initialize(23, new IdGeneratorConfig());
+        }
+    }
+
+    @Test
+    public void testGenerateShuffledUnique() throws Exception {
+        IdGenerator.initialize(23, IdGeneratorConfig.builder()
+                .allocationMode(AllocationMode.SHUFFLED)
+                .build());
+        try {
+            assertUniqueAcrossThreads(16, 10_000);
+        }
+        finally {
+            IdGenerator.initialize(23, new IdGeneratorConfig());
+        }
+    }
+
+    @Test
+    public void testGenerateUniqueWithExhaustionPolicies() throws Exception {
+        try {
+            for (AllocationMode mode : AllocationMode.values()) {
+                for (ExhaustionPolicy policy : ExhaustionPolicy.values()) {
+                    IdGenerator.initialize(23, IdGeneratorConfig.builder()
+                            .allocationMode(mode)
+                            .exhaustionPolicy(policy)
+                            .build());
+                    assertUniqueAcrossThreads(8, 5_000);
+                }
+            }
+        }
+        finally {
+            IdGenerator.initialize(23, new IdGeneratorConfig());
+        }
+    }
+
+    @Test
+    public void testGenerateBatch() throws Exception {
+        try {
+            for (AllocationMode mode : AllocationMode.values()) {
+                IdGenerator.initialize(23, IdGeneratorConfig.builder()
+                        .allocationMode(mode)
+                        .build());
+                final Set<String> ids = ConcurrentHashMap.newKeySet();
+                final ExecutorService executorService = Executors.newFixedThreadPool(8);
+                final List<Future<?>> futures = IntStream.range(0, 8)
+                        .mapToObj(i -> executorService.submit(() -> {
+                            for (int j = 0; j < 20; j++) {
+                                for (Id id : IdGenerator.generateBatch("X", 1500)) {
+                                    ids.add(id.getId());
+                                }
+                                ids.add(IdGenerator.generate("X").getId());
+                            }
+                        }))
+                        .collect(Collectors.toList());
+                for (Future<?> future : futures) {
+                    future.get();
+                }
+                executorService.shutdown();
+                Assert.assertEquals(8 * 20 * 1501, ids.size());
+            }
+        }
+        finally {
+            IdGenerator.initialize(23, new IdGeneratorConfig());
+        }
+        Assert.assertEquals(0, IdGenerator.generateBatch("X", 0).length);
+    }
+
+    @Test
+    public void testGenerateBatchWithConstraints() {
+        IdGenerator.initialize(23);
+        final PartitionValidator validator = new PartitionValidator(4, new JavaHashCodeBasedKeyPartitioner(16));
+        final Id[] ids = IdGenerator.generateBatchWithConstraints("X", Collections.singletonList(validator), false, 500);
+        Assert.assertEquals(500, ids.length);
+        for (Id id : ids) {
+            Assert.assertTrue(validator.isValid(id));
+        }
+        Assert.assertEquals(0, IdGenerator.generateBatchWithConstraints(
+                "TST", ImmutableList.of(id -> false), false, 10).length);
+    }
+
+    @Test
+    public void testGenerateFromPool() {
+        IdGenerator.initialize(23);
+        IdGenerator.registerPool("POOL", IdPoolConfig.builder()
+                .capacity(256)
+                .lowWatermark(128)
+                .build());
+        try {
+            final Set<String> ids = new HashSet<>();
+            for (int i = 0; i < 10_000; i++) {
+                final Id id = IdGenerator.generate("POOL");
+                Assert.assertTrue(id.getId().startsWith("POOL"));
+                Assert.assertTrue(System.currentTimeMillis() - id.generatedTimeMillis() <= 1000);
+                Assert.assertTrue(ids.add(id.getId()));
+            }
+        }
+        finally {
+            IdGenerator.cleanUp();
+        }
+    }
+
+    @Test
+    public void testGenerateWithConstraintsFromPool() {
+        IdGenerator.initialize(23);
+        final PartitionValidator validator = new PartitionValidator(3, new JavaHashCodeBasedKeyPartitioner(16));
+        IdGenerator.registerDomainSpecificConstraints("pooled", validator);
+        IdGenerator.registerPool("POOL", "pooled", new IdPoolConfig());
+        try {
+            for (int i = 0; i < 5_000; i++) {
+                final Optional<Id> id = IdGenerator.generateWithConstraints("POOL", "pooled");
+                Assert.assertTrue(id.isPresent());
+                Assert.assertTrue(validator.isValid(id.get()));
+            }
+        }
+        finally {
+            IdGenerator.cleanUp();
+        }
+    }
+
     @Test
     public void testConstraintFailure() {
         IdGenerator.initialize(23);
@@ -146,6 +281,77 @@ public class IdGeneratorTest {
                 false).isPresent());
     }
 
+    @Test
+    public void testDomainAttemptBudgetAndHistogram() {
+        IdGenerator.initialize(23);
+        IdGenerator.registerDomainSpecificConstraints("never", id -> false);
+        IdGenerator.registerDomainMaxAttempts("never", 5);
+        IdGenerator.registerDomainSpecificConstraints("failfast", new IdValidationConstraint() {
+            @Override
+            public boolean isValid(Id id) {
+                return false;
+            }
+
+            @Override
+            public boolean failFast() {
+                return true;
+            }
+        });
+        try {
+            Assert.assertFalse(IdGenerator.generateWithConstraints("TST", "never").isPresent());
+            final AttemptHistogram never = IdGenerator.getAttemptHistogram("never");
+            Assert.assertEquals(1, never.getExhaustedCount());
+            Assert.assertEquals(1, never.getCount(AttemptHistogram.bucketFor(5)));
+            Assert.assertEquals(5, IdGenerator.getConstraintChain("never").getRejectionCount(0));
+
+            Assert.assertFalse(IdGenerator.generateWithConstraints("TST", "failfast").isPresent());
+            final AttemptHistogram failFast = IdGenerator.getAttemptHistogram("failfast");
+            Assert.assertEquals(1, failFast.getFailFastCount());
+            Assert.assertEquals(1, failFast.getCount(0));
+        }
+        finally {
+            IdGenerator.cleanUp();
+        }
+    }
+
+    @Test
+    public void testLazyRegistrationDuringGeneration() throws Exception {
+        IdGenerator.initialize(23);
+        final int numThreads = 4;
+        final ExecutorService executorService = Executors.newFixedThreadPool(numThreads);
+        final AtomicBoolean stop = new AtomicBoolean();
+        try {
+            final List<Future<Long>> futures = IntStream.range(0, numThreads)
+                    .mapToObj(i -> executorService.submit(() -> {
+                        long generated = 0;
+                        while (!stop.get()) {
+                            IdGenerator.generateWithConstraints("TST", "lazy-" + (generated % 8))
+                                    .orElseThrow(IllegalStateException::new);
+                            generated++;
+                        }
+                        return generated;
+                    }))
+                    .collect(Collectors.toList());
+            for (int round = 0; round < 50; round++) {
+                for (int domain = 0; domain < 8; domain++) {
+                    IdGenerator.registerDomainSpecificConstraints("lazy-" + domain, id -> id.getExponent() % 2 == 0);
+                }
+                IdGenerator.registerGlobalConstraints(id -> true);
+                IdGenerator.initialize(23, Collections.emptyList(), Collections.emptyMap());
+                IdGenerator.cleanUp();
+            }
+            stop.set(true);
+            for (Future<Long> future : futures) {
+                future.get();
+            }
+        }
+        finally {
+            stop.set(true);
+            executorService.shutdownNow();
+            IdGenerator.cleanUp();
+        }
+    }
+
     @Test
     public void testParseFailure() {
         //Null or Empty String
@@ -198,6 +404,74 @@ public class IdGeneratorTest {
         Assert.assertEquals(parsedId.getGeneratedDate(), generatedId.getGeneratedDate());
     }
 
+    @Test
+    public void testParseWithConfiguredLayout() {
+        IdGenerator.initialize(123_456, IdGeneratorConfig.builder()
+                .nodeDigits(6)
+                .exponentDigits(4)
+                .build());
+        try {
+            final Id generatedId = IdGenerator.generate("TEST123");
+            final Id parsedId = IdGenerator.parse(generatedId.getId()).orElse(null);
+            Assert.assertNotNull(parsedId);
+            Assert.assertEquals(123_456, parsedId.getNode());
+            Assert.assertEquals(generatedId.getExponent(), parsedId.getExponent());
+            Assert.assertEquals(generatedId.getGeneratedDate(), parsedId.getGeneratedDate());
+
+            final IdFields fields = new IdFields();
+            Assert.assertTrue(IdGenerator.parse(generatedId.getId(), fields));
+            Assert.assertEquals(123_456, fields.getNode());
+        }
+        finally {
+            IdGenerator.initialize(23, new IdGeneratorConfig());
+        }
+    }
+
+    @Test
+    public void testParseDefaultLayoutAfterWideningLayout() {
+        final Id defaultLayoutId = IdGenerator.generate("TEST123");
+        IdGenerator.initialize(123_456, IdGeneratorConfig.builder()
+                .nodeDigits(6)
+                .exponentDigits(4)
+                .build());
+        try {
+            final Id parsedId = IdGenerator.parse(defaultLayoutId.getId()).orElse(null);
+            Assert.assertNotNull(parsedId);
+            Assert.assertEquals(23, parsedId.getNode());
+            Assert.assertEquals(defaultLayoutId.getExponent(), parsedId.getExponent());
+            Assert.assertEquals(defaultLayoutId.getGeneratedDate(), parsedId.getGeneratedDate());
+
+            final Id literalId = IdGenerator.parse("ORD2610190005311930023058").orElse(null);
+            Assert.assertNotNull(literalId);
+            Assert.assertEquals(23, literalId.getNode());
+            Assert.assertEquals(58, literalId.getExponent());
+
+            final IdFields fields = new IdFields();
+            Assert.assertTrue(IdGenerator.parse("ORD2610190005311930023058", fields));
+            Assert.assertEquals(23, fields.getNode());
+            Assert.assertEquals(58, fields.getExponent());
+        }
+        finally {
+            IdGenerator.initialize(23, new IdGeneratorConfig());
+        }
+    }
+
+    private void assertUniqueAcrossThreads(int numThreads, int idsPerThread) throws Exception {
+        final Set<String> ids = ConcurrentHashMap.newKeySet();
+        final ExecutorService executorService = Executors.newFixedThreadPool(numThreads);
+        final List<Future<?>> futures = IntStream.range(0, numThreads)
+                .mapToObj(i -> executorService.submit(() -> {
+                    for (int j = 0; j < idsPerThread; j++) {
+                        ids.add(IdGenerator.generate("X").getId());
+                    }
+                }))
+                .collect(Collectors.toList());
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executorService.shutdown();
+        Assert.assertEquals(numThreads * idsPerThread, ids.size());
+    }
 
     private Date generateDate(int year, int month, int day, int hour, int min, int sec, int ms, ZoneId zoneId) {
         return Date.from(
@@ -0,0 +1,57 @@
+/*
+ * Copyright (c) 2021 Santanu Sinha <santanu.sinha@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package io.appform.dropwizard.discovery.bundle.id;
+
+import io.appform.dropwizard.discovery.bundle.Constants;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test on {@link IdLayout}
+ */
+public class IdLayoutTest {
+
+    @Test
+    public void testDefaultMatchesClassicIds() {
+        final IdLayout layout = IdLayout.DEFAULT;
+        Assert.assertEquals(22, layout.getSuffixLength());
+        Assert.assertEquals(Constants.MAX_ID_PER_MS, layout.getIdsPerMillisecond());
+        Assert.assertEquals(Constants.MAX_ZONES * Constants.MAX_NODES_PER_ZONE, layout.getNodeCount());
+        Assert.assertSame(layout, IdLayout.of(4, 3));
+        Assert.assertEquals(layout, new IdGeneratorConfig().layout());
+    }
+
+    @Test
+    public void testWideLayout() {
+        final IdLayout layout = IdLayout.of(6, 6);
+        Assert.assertEquals(27, layout.getSuffixLength());
+        Assert.assertEquals(1_000_000, layout.getIdsPerMillisecond());
+        Assert.assertEquals(1_000_000, layout.getNodeCount());
+        Assert.assertEquals(layout, IdLayout.of(6, 6));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNarrowExponentRejected() {
+        IdLayout.of(4, 2);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testWideNodeRejected() {
+        IdLayout.of(7, 3);
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2021 Santanu Sinha <santanu.sinha@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package io.appform.dropwizard.discovery.bundle.id;
+
+import org.joda.time.format.DateTimeFormat;
+import org.joda.time.format.DateTimeFormatter;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Random;
+
+/**
+ * Test on {@link IdParser}
+ */
+public class IdParserTest {
+    private static final DateTimeFormatter formatter = DateTimeFormat.forPattern("yyMMddHHmmssSSS");
+
+    @Test
+    public void testTwoDigitYearsMatchJoda() {
+        final IdFields fields = new IdFields();
+        for (int year = 0; year < 100; year++) {
+            final String date = String.format("%02d0615103000123", year);
+            Assert.assertTrue(IdParser.parse("T" + date + "0001002", fields));
+            Assert.assertEquals(formatter.parseMillis(date), fields.getGeneratedTime());
+        }
+    }
+
+    @Test
+    public void testMatchesJodaParse() {
+        final Random random = new Random(42);
+        final IdFields fields = new IdFields();
+        for (int i = 0; i < 10_000; i++) {
+            final long time = System.currentTimeMillis() - random.nextInt(Integer.MAX_VALUE) * 100L;
+            final String idString = IdFormatter.format("PFX", time, random.nextInt(10_000), random.nextInt(1000));
+            Assert.assertTrue(IdParser.parse(idString, fields));
+            Assert.assertEquals(3, fields.getPrefixLength());
+            Assert.assertEquals(formatter.parseMillis(idString.substring(3, 18)), fields.getGeneratedTime());
+            Assert.assertEquals(Integer.parseInt(idString.substring(18, 22)), fields.getNode());
+            Assert.assertEquals(Integer.parseInt(idString.substring(22)), fields.getExponent());
+        }
+    }
+
+    @Test
+    public void testWideLayout() {
+        final IdLayout layout = IdLayout.of(5, 6);
+        final IdFields fields = new IdFields();
+        final long time = System.currentTimeMillis();
+        final String idString = IdFormatter.format("PFX", time, 54_321, 987_654, layout);
+        Assert.assertEquals(3 + 26, idString.length());
+        Assert.assertTrue(IdParser.parse(idString, layout, fields));
+        Assert.assertEquals(3, fields.getPrefixLength());
+        Assert.assertEquals(time, fields.getGeneratedTime());
+        Assert.assertEquals(54_321, fields.getNode());
+        Assert.assertEquals(987_654, fields.getExponent());
+
+        //Classic ids still parse with the default layout
+        Assert.assertTrue(IdParser.parse("2011250959030643972247", IdLayout.DEFAULT, fields));
+        Assert.assertEquals(3972, fields.getNode());
+        Assert.assertEquals(247, fields.getExponent());
+        Assert.assertFalse(IdParser.parse("2011250959030643972247", layout, fields));
+    }
+
+    @Test
+    public void testFailureLeavesTargetUntouched() {
+        final IdFields fields = new IdFields();
+        Assert.assertTrue(IdParser.parse("2011250959030643972247", fields));
+        Assert.assertEquals(0, fields.getPrefixLength());
+        Assert.assertFalse(IdParser.parse("ABC2011250959030643972247X", fields));
+        Assert.assertFalse(IdParser.parse("ABC2002300959030643972247", fields));
+        Assert.assertEquals(3972, fields.getNode());
+        Assert.assertEquals(247, fields.getExponent());
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2021 Santanu Sinha <santanu.sinha@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package io.appform.dropwizard.discovery.bundle.id;
+
+import org.awaitility.Awaitility;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Test on {@link IdPool}
+ */
+public class IdPoolTest {
+    private final ScheduledExecutorService executorService = Executors.newSingleThreadScheduledExecutor();
+
+    @After
+    public void tearDown() {
+        executorService.shutdownNow();
+    }
+
+    @Test
+    public void testPoolRefills() {
+        final IdPool pool = new IdPool(count -> IdGenerator.generateBatch("P", count),
+                                       IdPoolConfig.builder()
+                                               .capacity(100)
+                                               .lowWatermark(50)
+                                               .maxStalenessMillis(60_000)
+                                               .refillIntervalMillis(60_000)
+                                               .build(),
+                                       executorService);
+        Awaitility.await()
+                .atMost(Duration.ofSeconds(5))
+                .until(() -> pool.size() == 100);
+        final Set<String> ids = new HashSet<>();
+        for (int i = 0; i < 1000; i++) {
+            final Optional<Id> id = pool.poll();
+            if (id.isPresent()) {
+                Assert.assertTrue(ids.add(id.get().getId()));
+            }
+            else {
+                Awaitility.await()
+                        .atMost(Duration.ofSeconds(5))
+                        .until(() -> pool.size() > 0);
+            }
+        }
+        Assert.assertTrue(ids.size() > 100);
+        pool.stop();
+        Assert.assertEquals(0, pool.size());
+    }
+
+    @Test
+    public void testStaleIdsAreDropped() throws Exception {
+        //Only the scheduled initial fill runs, refills triggered by poll() are recorded and dropped
+        final AtomicInteger triggeredRefills = new AtomicInteger();
+        final ScheduledThreadPoolExecutor initialFillOnly = new ScheduledThreadPoolExecutor(1) {
+            @Override
+            public void execute(Runnable command) {
+                triggeredRefills.incrementAndGet();
+            }
+        };
+        try {
+            final IdPool pool = new IdPool(count -> IdGenerator.generateBatch("P", count),
+                                           IdPoolConfig.builder()
+                                                   .capacity(10)
+                                                   .lowWatermark(0)
+                                                   .maxStalenessMillis(20)
+                                                   .refillIntervalMillis(60_000)
+                                                   .build(),
+                                           initialFillOnly);
+            Awaitility.await()
+                    .atMost(Duration.ofSeconds(5))
+                    .until(() -> pool.size() == 10);
+            Thread.sleep(50);
+            Assert.assertFalse(pool.poll().isPresent());
+            Assert.assertEquals(0, pool.size());
+            Assert.assertEquals(1, triggeredRefills.get());
+            pool.stop();
+        }
+        finally {
+            initialFillOnly.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) 2021 Santanu Sinha <santanu.sinha@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package io.appform.dropwizard.discovery.bundle.id;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Date;
+
+/**
+ * Test on {@link Id}
+ */
+public class IdTest {
+
+    @Test
+    public void testLazyIdMatchesBuiltId() {
+        final long time = System.currentTimeMillis();
+        final Id lazy = Id.of("TEST", time, 23, 7);
+        final Id built = Id.builder()
+                .id(IdFormatter.format("TEST", time, 23, 7))
+                .generatedDate(new Date(time))
+                .node(23)
+                .exponent(7)
+                .build();
+        Assert.assertEquals(time, lazy.generatedTimeMillis());
+        Assert.assertEquals(built.getId(), lazy.getId());
+        Assert.assertEquals(built.getGeneratedDate(), lazy.getGeneratedDate());
+        Assert.assertEquals(built, lazy);
+        Assert.assertEquals(lazy, built);
+        Assert.assertEquals(built.hashCode(), lazy.hashCode());
+        Assert.assertEquals(built.toString(), lazy.toString());
+        Assert.assertEquals(lazy, Id.of("TEST", time, 23, 7));
+        Assert.assertNotEquals(lazy, Id.of("TEST", time, 23, 8));
+    }
+
+    @Test
+    public void testSettersOnLazyId() {
+        final long time = System.currentTimeMillis();
+        final Id id = Id.of("TEST", time, 23, 7);
+        final String idString = id.getId();
+        id.setNode(42);
+        Assert.assertEquals(idString, id.getId());
+        Assert.assertEquals(42, id.getNode());
+        Assert.assertEquals(new Date(time), id.getGeneratedDate());
+
+        id.setGeneratedDate(null);
+        Assert.assertNull(id.getGeneratedDate());
+        Assert.assertEquals(idString, id.getId());
+    }
+}
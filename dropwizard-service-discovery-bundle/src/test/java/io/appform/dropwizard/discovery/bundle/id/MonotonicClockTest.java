@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) 2021 Santanu Sinha <santanu.sinha@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package io.appform.dropwizard.discovery.bundle.id;
+
+import com.codahale.metrics.Meter;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Test on {@link MonotonicClock}
+ */
+public class MonotonicClockTest {
+    private final AtomicLong wallClock = new AtomicLong(System.currentTimeMillis());
+    private final Meter waits = new Meter();
+    private final Meter borrows = new Meter();
+    private final Meter failures = new Meter();
+
+    @Test
+    public void testBorrow() {
+        final MonotonicClock clock = clock(ClockRegressionPolicy.BORROW);
+        final long start = wallClock.get();
+        Assert.assertEquals(start, clock.now());
+        wallClock.addAndGet(-5_000);
+        Assert.assertEquals(start, clock.now());
+        Assert.assertEquals(start, clock.now());
+        Assert.assertEquals(1, borrows.getCount());
+        wallClock.set(start + 1);
+        Assert.assertEquals(start + 1, clock.now());
+        wallClock.set(start);
+        Assert.assertEquals(start + 1, clock.now());
+        Assert.assertEquals(2, borrows.getCount());
+        Assert.assertEquals(0, waits.getCount() + failures.getCount());
+    }
+
+    @Test
+    public void testWait() {
+        final long latest = System.currentTimeMillis() + 20;
+        final MonotonicClock clock = new MonotonicClock(aheadOnce(latest),
+                                                        ClockRegressionPolicy.WAIT, 100, waits, borrows, failures);
+        Assert.assertEquals(latest, clock.now());
+        Assert.assertTrue(clock.now() >= latest);
+        Assert.assertTrue(System.currentTimeMillis() >= latest);
+        Assert.assertEquals(1, waits.getCount());
+        Assert.assertEquals(0, borrows.getCount() + failures.getCount());
+    }
+
+    @Test
+    public void testFail() {
+        final MonotonicClock clock = clock(ClockRegressionPolicy.FAIL);
+        clock.now();
+        wallClock.addAndGet(-1);
+        try {
+            clock.now();
+            Assert.fail("Regression should not be tolerated");
+        }
+        catch (IllegalStateException e) {
+            Assert.assertEquals(1, failures.getCount());
+        }
+        //Steps larger than the wait limit fail as well
+        final MonotonicClock waiting = new MonotonicClock(aheadOnce(System.currentTimeMillis() + 10_000),
+                                                          ClockRegressionPolicy.WAIT, 100, waits, borrows, failures);
+        waiting.now();
+        try {
+            waiting.now();
+            Assert.fail("Regression should not be waited out");
+        }
+        catch (IllegalStateException e) {
+            Assert.assertEquals(2, failures.getCount());
+            Assert.assertEquals(0, waits.getCount());
+        }
+    }
+
+    @Test
+    public void testAllocatorsStayUniqueAcrossRegression() {
+        final IdLayout layout = IdLayout.DEFAULT;
+        final ExhaustionHandler exhaustionHandler
+                = new ExhaustionHandler(ExhaustionPolicy.BORROW, 10, new Meter());
+        final ExponentAllocator[] allocators = {
+                new RandomExponentAllocator(layout, clock(ClockRegressionPolicy.BORROW), exhaustionHandler,
+                                            EntropySource.SPLITTABLE_RANDOM, new Meter(), 0L),
+                new ShuffledExponentAllocator(layout, clock(ClockRegressionPolicy.BORROW), exhaustionHandler,
+                                              EntropySource.SPLITTABLE_RANDOM, 0L),
+                new LockFreeExponentAllocator(layout, clock(ClockRegressionPolicy.BORROW), exhaustionHandler, 0L),
+                new SequentialExponentAllocator(layout, clock(ClockRegressionPolicy.BORROW), exhaustionHandler, 0L),
+        };
+        for (ExponentAllocator allocator : allocators) {
+            wallClock.set(System.currentTimeMillis());
+            final Set<Long> issued = new HashSet<>();
+            long last = Long.MIN_VALUE;
+            for (int i = 0; i < 300; i++) {
+                final IdInfo info = allocator.allocate();
+                Assert.assertTrue(issued.add(info.time * 1000 + info.exponent));
+                Assert.assertTrue(info.time >= last);
+                last = info.time;
+                final ExponentBlock block = allocator.allocateBlock(2);
+                for (int exponent : block.exponents) {
+                    Assert.assertTrue(issued.add(block.time * 1000 + exponent));
+                }
+                Assert.assertTrue(block.time >= last);
+                last = block.time;
+                //Step back and forth around the same millisecond
+                wallClock.addAndGet(i % 3 == 2 ? 1 : -1);
+            }
+        }
+    }
+
+    private MonotonicClock clock(ClockRegressionPolicy policy) {
+        return new MonotonicClock(wallClock::get, policy, 100, waits, borrows, failures);
+    }
+
+    /**
+     * Reads the given time once, the system clock after that
+     */
+    private static LongSupplier aheadOnce(long latest) {
+        final AtomicBoolean read = new AtomicBoolean();
+        return () -> read.getAndSet(true) ? System.currentTimeMillis() : latest;
+    }
+}
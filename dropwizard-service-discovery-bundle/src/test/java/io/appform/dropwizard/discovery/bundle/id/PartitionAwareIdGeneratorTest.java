@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2021 Santanu Sinha <santanu.sinha@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package io.appform.dropwizard.discovery.bundle.id;
+
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import io.appform.dropwizard.discovery.bundle.id.constraints.impl.JavaHashCodeBasedKeyPartitioner;
+import io.appform.dropwizard.discovery.bundle.id.constraints.impl.KeyPartitioner;
+import io.appform.dropwizard.discovery.bundle.id.constraints.impl.MurmurBasedKeyPartitioner;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Test on {@link PartitionAwareIdGenerator}
+ */
+public class PartitionAwareIdGeneratorTest {
+
+    @Test
+    public void testGenerateForPartition() {
+        IdGenerator.initialize(23);
+        assertPartitions(new JavaHashCodeBasedKeyPartitioner(16), 16);
+        assertPartitions(new MurmurBasedKeyPartitioner(64), 64);
+    }
+
+    @Test
+    public void testUnreachablePartition() {
+        IdGenerator.initialize(23);
+        final PartitionAwareIdGenerator generator = new PartitionAwareIdGenerator("X", id -> 0, 4);
+        Assert.assertTrue(generator.generate(0).isPresent());
+        Assert.assertFalse(generator.generate(1).isPresent());
+    }
+
+    @Test
+    public void testSinglePartitionEveryMode() {
+        final KeyPartitioner partitioner = new MurmurBasedKeyPartitioner(64);
+        for (AllocationMode mode : AllocationMode.values()) {
+            final MetricRegistry registry = new MetricRegistry();
+            final DefaultIdGenerator idGenerator = new DefaultIdGenerator(
+                    23, IdGeneratorConfig.builder().allocationMode(mode).build());
+            idGenerator.registerMetrics(registry, "ids");
+            final PartitionAwareIdGenerator generator
+                    = new PartitionAwareIdGenerator(idGenerator, "X", partitioner, 64);
+            final Set<String> ids = new HashSet<>();
+            for (int i = 0; i < 2_000; i++) {
+                final Id id = generator.generate(5).orElse(null);
+                Assert.assertNotNull(id);
+                Assert.assertEquals(5, partitioner.partition(id));
+                Assert.assertTrue(ids.add(id.getId()));
+            }
+            Assert.assertEquals(2_000, registry.meter("ids.generated").getCount());
+        }
+    }
+
+    @Test
+    public void testRejectedCandidatesStayFree() {
+        final long now = System.currentTimeMillis();
+        final ExhaustionHandler exhaustionHandler = new ExhaustionHandler(ExhaustionPolicy.BORROW, 10, new Meter());
+        final ExponentAllocator[] allocators = {
+                new RandomExponentAllocator(IdLayout.DEFAULT, fixedClock(now), exhaustionHandler,
+                                            EntropySource.SPLITTABLE_RANDOM, new Meter(), 0L),
+                new ShuffledExponentAllocator(IdLayout.DEFAULT, fixedClock(now), exhaustionHandler,
+                                              EntropySource.SPLITTABLE_RANDOM, 0L),
+        };
+        for (ExponentAllocator allocator : allocators) {
+            final IdInfo matching = allocator.allocateMatching((time, exponent) -> exponent % 10 == 3, 1_000);
+            Assert.assertEquals(now, matching.time);
+            Assert.assertEquals(3, matching.exponent % 10);
+            final ExponentBlock rest = allocator.allocateBlock(1_000);
+            Assert.assertEquals(now, rest.time);
+            Assert.assertEquals(999, rest.exponents.length);
+            for (int exponent : rest.exponents) {
+                Assert.assertNotEquals(matching.exponent, exponent);
+            }
+            //Nothing left in the millisecond, the search moves on to the next one
+            final IdInfo next = allocator.allocateMatching((time, exponent) -> exponent == 7, 2_000);
+            Assert.assertEquals(now + 1, next.time);
+            Assert.assertEquals(7, next.exponent);
+            Assert.assertNull(allocator.allocateMatching((time, exponent) -> false, 100));
+        }
+    }
+
+    private static MonotonicClock fixedClock(long time) {
+        return new MonotonicClock(() -> time, ClockRegressionPolicy.BORROW, 0, new Meter(), new Meter(), new Meter());
+    }
+
+    private static void assertPartitions(KeyPartitioner partitioner, int partitionCount) {
+        final PartitionAwareIdGenerator generator = new PartitionAwareIdGenerator("X", partitioner, partitionCount);
+        final Random random = new Random(42);
+        final Set<String> ids = new HashSet<>();
+        for (int i = 0; i < 5_000; i++) {
+            final int partition = i % 3 == 0 ? 1 : random.nextInt(partitionCount);
+            final Optional<Id> id = generator.generate(partition);
+            Assert.assertTrue(id.isPresent());
+            Assert.assertEquals(partition, partitioner.partition(id.get()));
+            Assert.assertTrue(ids.add(id.get().getId()));
+        }
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2021 Santanu Sinha <santanu.sinha@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package io.appform.dropwizard.discovery.bundle.id.constraints.impl;
+
+import com.google.common.hash.Hashing;
+import io.appform.dropwizard.discovery.bundle.id.Id;
+import io.appform.dropwizard.discovery.bundle.id.IdGenerator;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.Random;
+
+/**
+ * Test on {@link JumpHashKeyPartitioner} and {@link RendezvousKeyPartitioner}
+ */
+public class ConsistentKeyPartitionerTest {
+    private static Id[] ids;
+
+    @BeforeClass
+    public static void setUp() {
+        IdGenerator.initialize(23);
+        ids = IdGenerator.generateBatch("T", 48_000);
+    }
+
+    @Test
+    public void testJumpHashGrowth() {
+        assertBalanced(new JumpHashKeyPartitioner(48), 48);
+        final double moved = movedFraction(new JumpHashKeyPartitioner(32), new JumpHashKeyPartitioner(48));
+        Assert.assertEquals(16.0 / 48, moved, 0.02);
+        final double movedByModulo = movedFraction(new Murmur3KeyPartitioner(32), new Murmur3KeyPartitioner(48));
+        Assert.assertTrue(movedByModulo > 0.5);
+    }
+
+    @Test
+    public void testJumpHashMatchesGuava() {
+        final Random random = new Random(42);
+        for (int i = 0; i < 10_000; i++) {
+            final long key = random.nextLong();
+            final int buckets = 1 + random.nextInt(1000);
+            Assert.assertEquals(Hashing.consistentHash(key, buckets), JumpHashKeyPartitioner.jump(key, buckets));
+        }
+    }
+
+    @Test
+    public void testRendezvous() {
+        assertBalanced(new RendezvousKeyPartitioner(48), 48);
+        Assert.assertEquals(16.0 / 48,
+                            movedFraction(new RendezvousKeyPartitioner(32), new RendezvousKeyPartitioner(48)),
+                            0.02);
+
+        final int[] withoutFive = new int[47];
+        for (int i = 0, j = 0; i < 48; i++) {
+            if (i != 5) {
+                withoutFive[j++] = i;
+            }
+        }
+        final KeyPartitioner all = new RendezvousKeyPartitioner(48);
+        final KeyPartitioner shrunk = new RendezvousKeyPartitioner(withoutFive);
+        for (Id id : ids) {
+            final int before = all.partition(id);
+            final int after = shrunk.partition(id);
+            Assert.assertTrue(before == 5 ? after != 5 : after == before);
+        }
+    }
+
+    @Test
+    public void testPartitionValidator() {
+        final KeyPartitioner partitioner = new JumpHashKeyPartitioner(4);
+        final PartitionValidator validator = new PartitionValidator(0, partitioner);
+        for (int i = 0; i < 100; i++) {
+            Assert.assertEquals(partitioner.partition(ids[i]) == 0, validator.isValid(ids[i]));
+        }
+    }
+
+    private static void assertBalanced(KeyPartitioner partitioner, int partitions) {
+        final int[] counts = new int[partitions];
+        for (Id id : ids) {
+            counts[partitioner.partition(id)]++;
+        }
+        final int expected = ids.length / partitions;
+        for (int count : counts) {
+            Assert.assertTrue(Math.abs(count - expected) < expected / 5);
+        }
+    }
+
+    private static double movedFraction(KeyPartitioner before, KeyPartitioner after) {
+        int moved = 0;
+        for (Id id : ids) {
+            if (before.partition(id) != after.partition(id)) {
+                moved++;
+            }
+        }
+        return (double) moved / ids.length;
+    }
+}
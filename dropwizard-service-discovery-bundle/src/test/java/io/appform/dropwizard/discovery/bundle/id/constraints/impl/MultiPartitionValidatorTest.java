@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2021 Santanu Sinha <santanu.sinha@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package io.appform.dropwizard.discovery.bundle.id.constraints.impl;
+
+import io.appform.dropwizard.discovery.bundle.id.Id;
+import io.appform.dropwizard.discovery.bundle.id.IdGenerator;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Optional;
+
+/**
+ * Test on {@link MultiPartitionValidator}
+ */
+public class MultiPartitionValidatorTest {
+
+    @Test
+    public void testBitmap() {
+        IdGenerator.initialize(23);
+        final int partitionCount = 128;
+        final KeyPartitioner partitioner = new Murmur3KeyPartitioner(partitionCount);
+        final BitSet owned = new BitSet();
+        for (int partition = 3; partition < partitionCount; partition += 8) {
+            owned.set(partition);
+        }
+        final MultiPartitionValidator validator = new MultiPartitionValidator(owned, partitioner);
+        for (Id id : IdGenerator.generateBatch("T", 5_000)) {
+            Assert.assertEquals(partitioner.partition(id) % 8 == 3, validator.isValid(id));
+        }
+        final Optional<Id> id = IdGenerator.generateWithConstraints("T", Collections.singletonList(validator));
+        Assert.assertTrue(id.isPresent());
+        Assert.assertEquals(3, partitioner.partition(id.get()) % 8);
+    }
+
+    @Test
+    public void testRange() {
+        IdGenerator.initialize(23);
+        final KeyPartitioner partitioner = new JumpHashKeyPartitioner(100);
+        final MultiPartitionValidator validator = MultiPartitionValidator.range(10, 20, partitioner);
+        for (Id id : IdGenerator.generateBatch("T", 5_000)) {
+            final int partition = partitioner.partition(id);
+            Assert.assertEquals(partition >= 10 && partition < 20, validator.isValid(id));
+        }
+        final MultiPartitionValidator outside = MultiPartitionValidator.range(100, 101, partitioner);
+        for (Id id : IdGenerator.generateBatch("T", 1_000)) {
+            Assert.assertFalse(outside.isValid(id));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testEmpty() {
+        new MultiPartitionValidator(new BitSet(), new JumpHashKeyPartitioner(4));
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2021 Santanu Sinha <santanu.sinha@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package io.appform.dropwizard.discovery.bundle.id.constraints.impl;
+
+import com.google.common.hash.Hashing;
+import io.appform.dropwizard.discovery.bundle.id.Id;
+import io.appform.dropwizard.discovery.bundle.id.IdGenerator;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Date;
+import java.util.Random;
+
+/**
+ * Test on {@link Murmur3KeyPartitioner}
+ */
+public class Murmur3KeyPartitionerTest {
+
+    @Test
+    public void testHashMatchesGuava() {
+        final Random random = new Random(42);
+        for (int length = 0; length < 64; length++) {
+            final StringBuilder value = new StringBuilder();
+            for (int i = 0; i < length; i++) {
+                value.append((char) random.nextInt(Character.MAX_VALUE));
+            }
+            for (int seed : new int[]{0, 17, -1}) {
+                Assert.assertEquals(Hashing.murmur3_32(seed).hashUnencodedChars(value).asInt(),
+                                    Murmur3.hash32(value, seed));
+            }
+        }
+    }
+
+    @Test
+    public void testReduce() {
+        Assert.assertEquals(0, Murmur3.reduce(0, 7));
+        Assert.assertEquals(6, Murmur3.reduce(-1, 7));
+        Assert.assertEquals(3, Murmur3.reduce(Integer.MIN_VALUE, 7));
+    }
+
+    @Test
+    public void testVersions() {
+        IdGenerator.initialize(23);
+        final int partitions = 16;
+        final KeyPartitioner legacy = new MurmurBasedKeyPartitioner(partitions);
+        final Murmur3KeyPartitioner v0 = new Murmur3KeyPartitioner(partitions, Murmur3KeyPartitioner.Version.V0);
+        final Murmur3KeyPartitioner latest = new Murmur3KeyPartitioner(partitions);
+        Assert.assertEquals(Murmur3KeyPartitioner.Version.V1, latest.getVersion());
+        final int[] counts = new int[partitions];
+        for (Id id : IdGenerator.generateBatch("T", 16_000)) {
+            Assert.assertEquals(legacy.partition(id), v0.partition(id));
+            final int partition = latest.partition(id);
+            Assert.assertEquals(Murmur3.reduce(Hashing.murmur3_32().hashUnencodedChars(id.getId()).asInt(), partitions),
+                                partition);
+            counts[partition]++;
+        }
+        for (int count : counts) {
+            Assert.assertTrue(count > 800 && count < 1200);
+        }
+    }
+
+    @Test
+    public void testMinValueHash() {
+        final Id id = Id.builder()
+                .id("polygenelubricants")
+                .generatedDate(new Date())
+                .build();
+        Assert.assertEquals(Integer.MIN_VALUE, id.getId().hashCode());
+        Assert.assertEquals(2, new JavaHashCodeBasedKeyPartitioner(3).partition(id));
+    }
+}